@@ -0,0 +1,76 @@
+package fr.heneria.lobby.benchmark;
+
+import fr.heneria.lobby.manager.ConfigManager;
+import fr.heneria.lobby.manager.PlaceholderManager;
+import fr.heneria.lobby.placeholder.PlaceholderTemplate;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text parsing: raw MiniMessage against {@link ConfigManager#parseComponent} (component cache
+ * and placeholder substitution) and the compilation of placeholder templates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComponentBenchmark {
+
+    // Same shapes as the names and lores of menus.yml
+    private static final String STATIC_TEXT = "<!italic><gradient:#f12711:#f5af19><b>Menu des Jeux</b></gradient>";
+    private static final String PLACEHOLDER_TEXT = "<!italic><gray>Joueurs: <white>%bungee_lobby1%</white> <dark_gray>(%status_lobby1%)";
+
+    private LobbyFixture fixture;
+    private ConfigManager configManager;
+    private PlaceholderManager placeholderManager;
+    private Player player;
+
+    @Setup
+    public void setup() {
+        fixture = LobbyFixture.start();
+        configManager = fixture.getPlugin().getConfigManager();
+        placeholderManager = fixture.getPlugin().getPlaceholderManager();
+        player = fixture.join();
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.stop();
+    }
+
+    @Benchmark
+    public Component miniMessage() {
+        return MiniMessage.miniMessage().deserialize(STATIC_TEXT);
+    }
+
+    @Benchmark
+    public Component parseStatic() {
+        return configManager.parseComponent(STATIC_TEXT, player);
+    }
+
+    @Benchmark
+    public Component parseWithPlaceholders() {
+        return configManager.parseComponent(PLACEHOLDER_TEXT, player);
+    }
+
+    @Benchmark
+    public PlaceholderTemplate compilePlaceholders() {
+        return placeholderManager.compile(PLACEHOLDER_TEXT);
+    }
+}
@@ -0,0 +1,100 @@
+package fr.heneria.lobby.benchmark;
+
+import fr.heneria.lobby.action.ActionType;
+import fr.heneria.lobby.action.LobbyAction;
+import fr.heneria.lobby.manager.ActionManager;
+import fr.heneria.lobby.manager.ItemManager;
+import fr.heneria.lobby.manager.RateLimitManager;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The click path: finding the action of a hotbar item (slot table or PDC), the rate limit
+ * and the dispatch of a resolved action.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatchBenchmark {
+
+    private static final int GAMES_MENU_SLOT = 4;
+
+    private LobbyFixture fixture;
+    private ActionManager actionManager;
+    private ItemManager itemManager;
+    private RateLimitManager rateLimitManager;
+    private Player player;
+    private ItemStack hotbarItem;
+    private int noopAction;
+
+    @Setup
+    public void setup() {
+        fixture = LobbyFixture.start();
+        actionManager = fixture.getPlugin().getActionManager();
+        itemManager = fixture.getPlugin().getItemManager();
+        rateLimitManager = fixture.getPlugin().getRateLimitManager();
+        player = fixture.join();
+        hotbarItem = player.getInventory().getItem(GAMES_MENU_SLOT);
+
+        // Measures the dispatch itself, not what the action does
+        LobbyAction noop = target -> { };
+        actionManager.registerType(new ActionType() {
+            @Override
+            public String getName() {
+                return "BENCH_NOOP";
+            }
+
+            @Override
+            public LobbyAction parse(String argument) {
+                return noop;
+            }
+        });
+        noopAction = actionManager.resolve("BENCH_NOOP");
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.stop();
+    }
+
+    @Benchmark
+    public int hotbarTableLookup() {
+        return itemManager.getHotbarAction(player, GAMES_MENU_SLOT, hotbarItem);
+    }
+
+    @Benchmark
+    public int persistentActionRead() {
+        return itemManager.getPersistentAction(hotbarItem);
+    }
+
+    @Benchmark
+    public int resolveCached() {
+        return actionManager.resolve("OPEN_MENU:games_menu");
+    }
+
+    @Benchmark
+    public boolean rateLimit() {
+        return rateLimitManager.tryEvent(player);
+    }
+
+    @Benchmark
+    public boolean execute() {
+        return actionManager.execute(player, noopAction);
+    }
+}
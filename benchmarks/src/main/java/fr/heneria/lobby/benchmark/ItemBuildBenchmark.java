@@ -0,0 +1,74 @@
+package fr.heneria.lobby.benchmark;
+
+import fr.heneria.lobby.item.ItemTemplate;
+import fr.heneria.lobby.manager.ConfigManager;
+import fr.heneria.lobby.manager.ItemManager;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item building: compiled templates versus the raw configuration section, and the whole join kit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemBuildBenchmark {
+
+    private LobbyFixture fixture;
+    private ConfigManager configManager;
+    private ItemManager itemManager;
+    private Player player;
+    private ItemTemplate staticTemplate;
+    private ItemTemplate playerHeadTemplate;
+
+    @Setup
+    public void setup() {
+        fixture = LobbyFixture.start();
+        configManager = fixture.getPlugin().getConfigManager();
+        itemManager = fixture.getPlugin().getItemManager();
+        player = fixture.join();
+        staticTemplate = configManager.getHotbarItem("games_menu");
+        playerHeadTemplate = configManager.getHotbarItem("profile");
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.stop();
+    }
+
+    @Benchmark
+    public ItemStack buildFromTemplate() {
+        return configManager.buildItem(staticTemplate, player, "games_menu");
+    }
+
+    @Benchmark
+    public ItemStack buildPlayerHead() {
+        return configManager.buildItem(playerHeadTemplate, player, "profile");
+    }
+
+    @Benchmark
+    public ItemStack buildFromSection() {
+        return configManager.getItem("hotbar_items.games_menu", player, "games_menu");
+    }
+
+    @Benchmark
+    public void giveLobbyItems() {
+        itemManager.giveLobbyItems(player);
+    }
+}
@@ -0,0 +1,166 @@
+package fr.heneria.lobby.benchmark;
+
+import fr.heneria.lobby.metrics.LatencyHistogram;
+import org.bukkit.block.BlockFace;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Load scenarios on a mocked server: join storm, hotbar click flood, every menu opened and
+ * visibility toggles, each followed by the ticks draining the spread work (visibility jobs, queues).
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar fr.heneria.lobby.benchmark.LoadHarness [players...] [--max-p99-ms=N] [--max-tick-ms=N]}.
+ * Exits with status 1 when an event scenario exceeds the p99 limit, a drain tick exceeds the tick limit
+ * or a hotbar click did not open its menu, so it can gate a build. Rate limits are lifted for the click flood.
+ */
+public final class LoadHarness {
+
+    private static final int CLICKS_PER_PLAYER = 20;
+    private static final int DRAIN_TICKS = 40;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final List<Result> results = new ArrayList<>();
+    private final List<String> failures = new ArrayList<>();
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) {
+        List<Integer> counts = new ArrayList<>();
+        double maxP99Millis = Double.MAX_VALUE;
+        double maxTickMillis = Double.MAX_VALUE;
+        for (String arg : args) {
+            if (arg.startsWith("--max-p99-ms=")) {
+                maxP99Millis = Double.parseDouble(arg.substring("--max-p99-ms=".length()));
+            } else if (arg.startsWith("--max-tick-ms=")) {
+                maxTickMillis = Double.parseDouble(arg.substring("--max-tick-ms=".length()));
+            } else {
+                counts.add(Integer.parseInt(arg));
+            }
+        }
+        if (counts.isEmpty()) counts = List.of(100, 500, 1000);
+
+        LoadHarness harness = new LoadHarness();
+        for (int count : counts) {
+            harness.run(count);
+        }
+
+        boolean failed = false;
+        System.out.println(String.format(Locale.ROOT, "%-8s %-20s %8s %10s %10s %10s %12s",
+                "players", "scenario", "events", "p50 us", "p99 us", "max us", "bytes/event"));
+        for (Result result : harness.results) {
+            System.out.println(result.format());
+            if (result.scenario.endsWith("ticks")) {
+                // Any tick over the limit is a lag spike, the slowest one is checked
+                if (result.latency.maxMicros() > maxTickMillis * 1000) {
+                    System.out.println("  tick above " + maxTickMillis + " ms");
+                    failed = true;
+                }
+            } else if (result.latency.percentileMicros(0.99) > maxP99Millis * 1000) {
+                System.out.println("  p99 above " + maxP99Millis + " ms");
+                failed = true;
+            }
+        }
+        for (String failure : harness.failures) {
+            System.out.println(failure);
+            failed = true;
+        }
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    private void run(int playerCount) {
+        LobbyFixture fixture = LobbyFixture.start();
+        try {
+            List<PlayerMock> players = new ArrayList<>(playerCount);
+            measure(playerCount, "join", playerCount, () -> players.add(fixture.join()));
+            drain(fixture, playerCount, "join ticks");
+
+            // Every click must reach the menu, not the token buckets
+            fixture.disableRateLimits();
+            int openedBefore = fixture.getInventoriesOpened();
+            List<Player> clickers = new ArrayList<>(players);
+            measure(playerCount, "hotbar click", playerCount * CLICKS_PER_PLAYER, new Runnable() {
+                private int index;
+
+                @Override
+                public void run() {
+                    Player player = clickers.get(index++ % clickers.size());
+                    ItemStack item = player.getInventory().getItem(player.getInventory().getHeldItemSlot());
+                    fixture.getServer().getPluginManager().callEvent(new PlayerInteractEvent(
+                            player, Action.RIGHT_CLICK_AIR, item, null, BlockFace.SELF, EquipmentSlot.HAND));
+                }
+            });
+            int opened = fixture.getInventoriesOpened() - openedBefore;
+            long throttled = fixture.getPlugin().getRateLimitManager().getThrottledCount();
+            if (opened != playerCount * CLICKS_PER_PLAYER || throttled > 0) {
+                failures.add(playerCount + " players: " + opened + " menus opened by " + playerCount * CLICKS_PER_PLAYER
+                        + " hotbar clicks, " + throttled + " throttled");
+            }
+            players.forEach(Player::closeInventory);
+            drain(fixture, playerCount, "click ticks");
+
+            List<String> menus = new ArrayList<>(fixture.getPlugin().getConfigManager().getSnapshot().getMenus().keySet());
+            measure(playerCount, "menu open", playerCount * menus.size(), new Runnable() {
+                private int index;
+
+                @Override
+                public void run() {
+                    Player player = players.get(index % players.size());
+                    fixture.getPlugin().getMenuManager().openMenu(player, menus.get(index / players.size() % menus.size()));
+                    player.closeInventory();
+                    index++;
+                }
+            });
+
+            measure(playerCount, "visibility toggle", playerCount * 2, new Runnable() {
+                private int index;
+
+                @Override
+                public void run() {
+                    fixture.getPlugin().getVisibilityManager().toggleVisibility(players.get(index++ % players.size()));
+                }
+            });
+            drain(fixture, playerCount, "visibility ticks");
+        } finally {
+            fixture.stop();
+        }
+    }
+
+    private void measure(int players, String scenario, int events, Runnable event) {
+        LatencyHistogram latency = new LatencyHistogram();
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < events; i++) {
+            long start = System.nanoTime();
+            event.run();
+            latency.record(System.nanoTime() - start);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        results.add(new Result(players, scenario, latency.snapshot(), events == 0 ? 0 : allocated / events));
+    }
+
+    private void drain(LobbyFixture fixture, int players, String scenario) {
+        measure(players, scenario, DRAIN_TICKS, () -> fixture.tick(1));
+    }
+
+    private record Result(int players, String scenario, LatencyHistogram.Snapshot latency, long bytesPerEvent) {
+
+        String format() {
+            return String.format(Locale.ROOT, "%-8d %-20s %8d %10.0f %10.0f %10.0f %12d",
+                    players, scenario, latency.count(), latency.percentileMicros(0.50),
+                    latency.percentileMicros(0.99), latency.maxMicros(), bytesPerEvent);
+        }
+    }
+}
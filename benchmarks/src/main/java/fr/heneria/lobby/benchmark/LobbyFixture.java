@@ -0,0 +1,80 @@
+package fr.heneria.lobby.benchmark;
+
+import fr.heneria.lobby.HeneriaLobby;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+/**
+ * HeneriaLobby enabled on a mocked Paper server, with the config.yml and menus.yml shipped in the plugin.
+ * HeadDatabase is a stub plugin, so heads fall back to their material.
+ */
+public final class LobbyFixture {
+
+    private final ServerMock server;
+    private final HeneriaLobby plugin;
+    private int inventoriesOpened;
+
+    private LobbyFixture(ServerMock server, HeneriaLobby plugin) {
+        this.server = server;
+        this.plugin = plugin;
+    }
+
+    public static LobbyFixture start() {
+        ServerMock server = MockBukkit.mock();
+        MockBukkit.createMockPlugin("HeadDatabase");
+        HeneriaLobby plugin = MockBukkit.load(HeneriaLobby.class);
+        LobbyFixture fixture = new LobbyFixture(server, plugin);
+        server.getPluginManager().registerEvents(new Listener() {
+            @EventHandler
+            public void onOpen(InventoryOpenEvent event) {
+                fixture.inventoriesOpened++;
+            }
+        }, plugin);
+        return fixture;
+    }
+
+    /**
+     * Lifts the budgets of {@code rate_limits}, so a flood of clicks measures their dispatch instead of the throttling.
+     */
+    public void disableRateLimits() {
+        plugin.getConfig().set("rate_limits.events.capacity", Integer.MAX_VALUE);
+        plugin.getConfig().set("rate_limits.events.per_second", Integer.MAX_VALUE);
+        plugin.getConfig().set("rate_limits.actions", null);
+        plugin.getRateLimitManager().onDisable();
+        plugin.getRateLimitManager().onEnable();
+    }
+
+    /**
+     * @return The inventories opened so far, menus included.
+     */
+    public int getInventoriesOpened() {
+        return inventoriesOpened;
+    }
+
+    public ServerMock getServer() {
+        return server;
+    }
+
+    public HeneriaLobby getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * Adds a player and runs the join listeners (lobby kit, visibility).
+     */
+    public PlayerMock join() {
+        return server.addPlayer();
+    }
+
+    public void tick(int ticks) {
+        server.getScheduler().performTicks(ticks);
+    }
+
+    public void stop() {
+        MockBukkit.unmock();
+    }
+}
@@ -0,0 +1,55 @@
+package fr.heneria.lobby.benchmark;
+
+import fr.heneria.lobby.manager.MenuManager;
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opening the menus of menus.yml: template copy plus the player-dependent slots.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MenuBenchmark {
+
+    @Param({"games_menu", "hub_selector", "profile"})
+    private String menuId;
+
+    private LobbyFixture fixture;
+    private MenuManager menuManager;
+    private Player player;
+
+    @Setup
+    public void setup() {
+        fixture = LobbyFixture.start();
+        menuManager = fixture.getPlugin().getMenuManager();
+        player = fixture.join();
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.stop();
+    }
+
+    @Benchmark
+    public void openAndClose() {
+        menuManager.openMenu(player, menuId);
+        player.closeInventory();
+    }
+}
@@ -1,12 +1,25 @@
 package fr.heneria.lobby;
 
 import fr.heneria.lobby.listeners.PlayerJoinListener;
+import fr.heneria.lobby.manager.ActionManager;
+import fr.heneria.lobby.manager.AnalyticsManager;
 import fr.heneria.lobby.manager.ConfigManager;
+import fr.heneria.lobby.manager.ConnectManager;
 import fr.heneria.lobby.manager.DatabaseManager;
 import fr.heneria.lobby.manager.ItemManager;
+import fr.heneria.lobby.manager.LobbyRegistryManager;
+import fr.heneria.lobby.manager.ManagerLoader;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import fr.heneria.lobby.manager.MenuManager;
+import fr.heneria.lobby.manager.MetricsManager;
+import fr.heneria.lobby.manager.PlaceholderManager;
+import fr.heneria.lobby.manager.PreferenceManager;
+import fr.heneria.lobby.manager.ProfileManager;
+import fr.heneria.lobby.manager.RateLimitManager;
+import fr.heneria.lobby.manager.ServerStatusManager;
+import fr.heneria.lobby.manager.SkinManager;
+import fr.heneria.lobby.manager.VisibilityManager;
 
 public class HeneriaLobby extends JavaPlugin {
 
@@ -14,37 +27,62 @@ public class HeneriaLobby extends JavaPlugin {
     private ItemManager itemManager;
     private DatabaseManager databaseManager;
     private MenuManager menuManager;
+    private ActionManager actionManager;
+    private VisibilityManager visibilityManager;
+    private PreferenceManager preferenceManager;
+    private ProfileManager profileManager;
+    private PlaceholderManager placeholderManager;
+    private ServerStatusManager serverStatusManager;
+    private ConnectManager connectManager;
+    private RateLimitManager rateLimitManager;
+    private MetricsManager metricsManager;
+    private SkinManager skinManager;
+    private LobbyRegistryManager lobbyRegistryManager;
+    private AnalyticsManager analyticsManager;
+    private ManagerLoader managerLoader;
 
     @Override
     public void onEnable() {
-        // Initialize Managers
-        this.configManager = new ConfigManager(this);
-        this.configManager.onEnable();
-
-        this.databaseManager = new DatabaseManager(this);
-        this.databaseManager.onEnable();
-
-        this.itemManager = new ItemManager(this);
-        this.itemManager.onEnable();
-
-        this.menuManager = new MenuManager(this);
-        this.menuManager.onEnable();
+        // Initialize Managers, started in dependency order (see Manager#getDependencies)
+        this.managerLoader = new ManagerLoader(this);
+        this.configManager = managerLoader.register(new ConfigManager(this));
+        this.metricsManager = managerLoader.register(new MetricsManager(this));
+        this.placeholderManager = managerLoader.register(new PlaceholderManager(this));
+        this.actionManager = managerLoader.register(new ActionManager(this));
+        this.databaseManager = managerLoader.register(new DatabaseManager(this));
+        this.preferenceManager = managerLoader.register(new PreferenceManager(this));
+        this.profileManager = managerLoader.register(new ProfileManager(this));
+        this.skinManager = managerLoader.register(new SkinManager(this));
+        this.itemManager = managerLoader.register(new ItemManager(this));
+        this.serverStatusManager = managerLoader.register(new ServerStatusManager(this));
+        this.connectManager = managerLoader.register(new ConnectManager(this));
+        this.lobbyRegistryManager = managerLoader.register(new LobbyRegistryManager(this));
+        this.menuManager = managerLoader.register(new MenuManager(this));
+        this.visibilityManager = managerLoader.register(new VisibilityManager(this));
+        this.rateLimitManager = managerLoader.register(new RateLimitManager(this));
+        this.analyticsManager = managerLoader.register(new AnalyticsManager(this));
+        managerLoader.enableAll();
 
         // Register Listeners
+        getServer().getPluginManager().registerEvents(new fr.heneria.lobby.listeners.PreLoginListener(this), this);
         getServer().getPluginManager().registerEvents(new PlayerJoinListener(this), this);
+        getServer().getPluginManager().registerEvents(new fr.heneria.lobby.listeners.PlayerQuitListener(this), this);
         getServer().getPluginManager().registerEvents(new fr.heneria.lobby.listeners.InventoryListener(this), this);
         getServer().getPluginManager().registerEvents(new fr.heneria.lobby.listeners.InteractListener(this), this);
 
+        // Register Commands
+        fr.heneria.lobby.command.LobbyCommand lobbyCommand = new fr.heneria.lobby.command.LobbyCommand(this);
+        getCommand("lobby").setExecutor(lobbyCommand);
+        getCommand("lobby").setTabCompleter(lobbyCommand);
+        getCommand("lobbystats").setExecutor(new fr.heneria.lobby.command.LobbyStatsCommand(this));
+
         getLogger().info("HeneriaLobby has been enabled!");
     }
 
     @Override
     public void onDisable() {
-        if (databaseManager != null) {
-            databaseManager.onDisable();
-        }
-        if (itemManager != null) {
-            itemManager.onDisable();
+        if (managerLoader != null) {
+            managerLoader.disableAll();
         }
         getLogger().info("HeneriaLobby has been disabled!");
     }
@@ -64,4 +102,52 @@ public class HeneriaLobby extends JavaPlugin {
     public MenuManager getMenuManager() {
         return menuManager;
     }
+
+    public ActionManager getActionManager() {
+        return actionManager;
+    }
+
+    public VisibilityManager getVisibilityManager() {
+        return visibilityManager;
+    }
+
+    public PreferenceManager getPreferenceManager() {
+        return preferenceManager;
+    }
+
+    public ProfileManager getProfileManager() {
+        return profileManager;
+    }
+
+    public PlaceholderManager getPlaceholderManager() {
+        return placeholderManager;
+    }
+
+    public ServerStatusManager getServerStatusManager() {
+        return serverStatusManager;
+    }
+
+    public ConnectManager getConnectManager() {
+        return connectManager;
+    }
+
+    public LobbyRegistryManager getLobbyRegistryManager() {
+        return lobbyRegistryManager;
+    }
+
+    public AnalyticsManager getAnalyticsManager() {
+        return analyticsManager;
+    }
+
+    public RateLimitManager getRateLimitManager() {
+        return rateLimitManager;
+    }
+
+    public MetricsManager getMetricsManager() {
+        return metricsManager;
+    }
+
+    public SkinManager getSkinManager() {
+        return skinManager;
+    }
 }
@@ -0,0 +1,19 @@
+package fr.heneria.lobby.action;
+
+/**
+ * Parses the actions of one type, e.g. {@code OPEN_MENU:games_menu}.
+ * Register custom types with {@link fr.heneria.lobby.manager.ActionManager#registerType(ActionType)}.
+ */
+public interface ActionType {
+
+    /**
+     * @return The prefix before the ':' (or the whole action when it has no argument).
+     */
+    String getName();
+
+    /**
+     * @param argument The trimmed text after the ':', empty if there is none.
+     * @return The parsed action, or null if the argument is invalid.
+     */
+    LobbyAction parse(String argument);
+}
@@ -0,0 +1,24 @@
+package fr.heneria.lobby.action;
+
+import fr.heneria.lobby.HeneriaLobby;
+import org.bukkit.entity.Player;
+
+public class ConnectAction implements LobbyAction {
+
+    private final HeneriaLobby plugin;
+    private final String server;
+
+    public ConnectAction(HeneriaLobby plugin, String server) {
+        this.plugin = plugin;
+        this.server = server;
+    }
+
+    public String getServer() {
+        return server;
+    }
+
+    @Override
+    public void execute(Player player) {
+        plugin.getConnectManager().queue(player, server);
+    }
+}
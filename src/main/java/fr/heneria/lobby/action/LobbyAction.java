@@ -0,0 +1,12 @@
+package fr.heneria.lobby.action;
+
+import org.bukkit.entity.Player;
+
+/**
+ * An action parsed from an {@code action:} entry of config.yml or menus.yml.
+ * Instances are immutable and shared by every item carrying the action.
+ */
+public interface LobbyAction {
+
+    void execute(Player player);
+}
@@ -0,0 +1,24 @@
+package fr.heneria.lobby.action;
+
+import fr.heneria.lobby.HeneriaLobby;
+import org.bukkit.entity.Player;
+
+public class OpenMenuAction implements LobbyAction {
+
+    private final HeneriaLobby plugin;
+    private final String menuId;
+
+    public OpenMenuAction(HeneriaLobby plugin, String menuId) {
+        this.plugin = plugin;
+        this.menuId = menuId;
+    }
+
+    public String getMenuId() {
+        return menuId;
+    }
+
+    @Override
+    public void execute(Player player) {
+        plugin.getMenuManager().openMenu(player, menuId);
+    }
+}
@@ -0,0 +1,20 @@
+package fr.heneria.lobby.action;
+
+import fr.heneria.lobby.HeneriaLobby;
+import org.bukkit.entity.Player;
+
+public class PageAction implements LobbyAction {
+
+    private final HeneriaLobby plugin;
+    private final int delta;
+
+    public PageAction(HeneriaLobby plugin, int delta) {
+        this.plugin = plugin;
+        this.delta = delta;
+    }
+
+    @Override
+    public void execute(Player player) {
+        plugin.getMenuManager().turnPage(player, delta);
+    }
+}
@@ -0,0 +1,18 @@
+package fr.heneria.lobby.action;
+
+import fr.heneria.lobby.HeneriaLobby;
+import org.bukkit.entity.Player;
+
+public class QuickJoinAction implements LobbyAction {
+
+    private final HeneriaLobby plugin;
+
+    public QuickJoinAction(HeneriaLobby plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void execute(Player player) {
+        plugin.getLobbyRegistryManager().quickJoin(player);
+    }
+}
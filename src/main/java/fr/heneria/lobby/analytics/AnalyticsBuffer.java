@@ -0,0 +1,102 @@
+package fr.heneria.lobby.analytics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Preallocated ring of click events stored in parallel primitive arrays, so recording never allocates.
+ * Any thread may offer events without locking, a single consumer drains them.
+ * When the ring is full the new event is dropped and counted.
+ */
+public class AnalyticsBuffer {
+
+    private final int mask;
+    private final long[] uuidMost;
+    private final long[] uuidLeast;
+    private final int[] actions;
+    private final int[] menus;
+    private final long[] timestamps;
+    // Sequence + 1 of the event written in each slot, so the consumer only reads complete events
+    private final AtomicLongArray published;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private volatile long head;
+
+    /**
+     * @param capacity Maximum number of pending events, rounded up to a power of two.
+     */
+    public AnalyticsBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.uuidMost = new long[size];
+        this.uuidLeast = new long[size];
+        this.actions = new int[size];
+        this.menus = new int[size];
+        this.timestamps = new long[size];
+        this.published = new AtomicLongArray(size);
+    }
+
+    /**
+     * @param menu Index of the menu the click happened in, -1 for the hotbar.
+     * @return False if the ring was full and the event dropped.
+     */
+    public boolean offer(long playerMost, long playerLeast, int action, int menu, long timestamp) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head > mask) {
+                dropped.increment();
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) (sequence & mask);
+        uuidMost[index] = playerMost;
+        uuidLeast[index] = playerLeast;
+        actions[index] = action;
+        menus[index] = menu;
+        timestamps[index] = timestamp;
+        published.set(index, sequence + 1);
+        return true;
+    }
+
+    /**
+     * Hands up to {@code max} events to the sink, oldest first. Must only be called by one thread at a time.
+     * @return The number of events drained.
+     */
+    public int drain(EventSink sink, int max) {
+        long sequence = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (sequence & mask);
+            if (published.get(index) != sequence + 1) break;
+            sink.accept(uuidMost[index], uuidLeast[index], actions[index], menus[index], timestamps[index]);
+            sequence++;
+            drained++;
+        }
+        // Frees the slots for the producers
+        head = sequence;
+        return drained;
+    }
+
+    /**
+     * @return Events offered but not drained yet.
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @FunctionalInterface
+    public interface EventSink {
+        void accept(long playerMost, long playerLeast, int action, int menu, long timestamp);
+    }
+}
@@ -0,0 +1,37 @@
+package fr.heneria.lobby.command;
+
+import fr.heneria.lobby.HeneriaLobby;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+
+import java.util.List;
+
+public class LobbyCommand implements CommandExecutor, TabCompleter {
+
+    private final HeneriaLobby plugin;
+
+    public LobbyCommand(HeneriaLobby plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length == 1 && args[0].equalsIgnoreCase("reload")) {
+            sender.sendMessage(Component.text("Rechargement de la configuration...", NamedTextColor.GRAY));
+            plugin.getConfigManager().reload(sender);
+            return true;
+        }
+
+        sender.sendMessage(Component.text("Usage: /" + label + " reload", NamedTextColor.RED));
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        return args.length == 1 ? List.of("reload") : List.of();
+    }
+}
@@ -0,0 +1,63 @@
+package fr.heneria.lobby.command;
+
+import fr.heneria.lobby.HeneriaLobby;
+import fr.heneria.lobby.manager.AnalyticsManager;
+import fr.heneria.lobby.manager.MetricsManager;
+import fr.heneria.lobby.metrics.LatencyHistogram;
+import fr.heneria.lobby.metrics.Metric;
+import fr.heneria.lobby.util.ComponentCache;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+
+import java.util.Locale;
+
+public class LobbyStatsCommand implements CommandExecutor {
+
+    private final HeneriaLobby plugin;
+
+    public LobbyStatsCommand(HeneriaLobby plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        MetricsManager metrics = plugin.getMetricsManager();
+        if (!metrics.isEnabled()) {
+            sender.sendMessage(Component.text("Les statistiques sont désactivées (metrics.enabled).", NamedTextColor.RED));
+            return true;
+        }
+
+        sender.sendMessage(Component.text("Statistiques HeneriaLobby (" + metrics.getUptimeSeconds() + "s)", NamedTextColor.GOLD));
+        for (Metric metric : Metric.values()) {
+            LatencyHistogram.Snapshot snapshot = metrics.getSnapshot(metric);
+            sender.sendMessage(Component.text(String.format(Locale.ROOT,
+                    "%s: %d appels, %.1f/s, p50 %s, p99 %s, max %s",
+                    metric.getKey(), snapshot.count(), metrics.getRate(metric),
+                    formatMicros(snapshot.percentileMicros(0.50)),
+                    formatMicros(snapshot.percentileMicros(0.99)),
+                    formatMicros(snapshot.maxMicros())), NamedTextColor.GRAY));
+        }
+
+        ComponentCache componentCache = plugin.getConfigManager().getComponentCache();
+        long hits = componentCache.getHits();
+        long total = hits + componentCache.getMisses();
+        sender.sendMessage(Component.text(String.format(Locale.ROOT, "Cache des textes: %d/%d entrées, %.1f%% de succès",
+                componentCache.size(), componentCache.getMaxSize(), total == 0 ? 0 : hits * 100.0 / total), NamedTextColor.GRAY));
+        sender.sendMessage(Component.text("Actions limitées: " + plugin.getRateLimitManager().getThrottledCount(), NamedTextColor.GRAY));
+        AnalyticsManager analytics = plugin.getAnalyticsManager();
+        if (analytics.isEnabled()) {
+            sender.sendMessage(Component.text(String.format(Locale.ROOT, "Analytique: %d en attente, %d perdus (tampon plein), %d non écrits",
+                    analytics.getPendingCount(), analytics.getDroppedCount(), analytics.getFailedCount()), NamedTextColor.GRAY));
+        }
+        return true;
+    }
+
+    private static String formatMicros(double micros) {
+        return micros >= 1000
+                ? String.format(Locale.ROOT, "%.1fms", micros / 1000)
+                : String.format(Locale.ROOT, "%.0fµs", micros);
+    }
+}
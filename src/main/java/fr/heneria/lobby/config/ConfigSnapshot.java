@@ -0,0 +1,62 @@
+package fr.heneria.lobby.config;
+
+import fr.heneria.lobby.item.ItemTemplate;
+import fr.heneria.lobby.menu.MenuTemplate;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything read from config.yml and menus.yml: hotbar items, menus and their actions.
+ * Built off the main thread and published as a whole, readers never see a half-loaded state.
+ * The YAML objects are never modified once the snapshot is built.
+ */
+public class ConfigSnapshot {
+
+    private final FileConfiguration config;
+    private final FileConfiguration menusConfig;
+    private final Map<String, ItemTemplate> hotbarItems;
+    private final Map<String, MenuTemplate> menus;
+    private final List<String> warnings;
+
+    public ConfigSnapshot(FileConfiguration config, FileConfiguration menusConfig,
+                          Map<String, ItemTemplate> hotbarItems, Map<String, MenuTemplate> menus, List<String> warnings) {
+        this.config = config;
+        this.menusConfig = menusConfig;
+        this.hotbarItems = Map.copyOf(hotbarItems);
+        this.menus = Map.copyOf(menus);
+        this.warnings = List.copyOf(warnings);
+    }
+
+    public FileConfiguration getConfig() {
+        return config;
+    }
+
+    public FileConfiguration getMenusConfig() {
+        return menusConfig;
+    }
+
+    /**
+     * @return The hotbar items by key (selector, profile, visibility...).
+     */
+    public Map<String, ItemTemplate> getHotbarItems() {
+        return hotbarItems;
+    }
+
+    public ItemTemplate getHotbarItem(String key) {
+        return hotbarItems.get(key);
+    }
+
+    public Map<String, MenuTemplate> getMenus() {
+        return menus;
+    }
+
+    public MenuTemplate getMenu(String menuId) {
+        return menus.get(menuId);
+    }
+
+    public List<String> getWarnings() {
+        return warnings;
+    }
+}
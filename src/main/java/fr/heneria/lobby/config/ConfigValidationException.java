@@ -0,0 +1,20 @@
+package fr.heneria.lobby.config;
+
+import java.util.List;
+
+/**
+ * Thrown when config.yml or menus.yml cannot be loaded. The previous snapshot is kept.
+ */
+public class ConfigValidationException extends Exception {
+
+    private final List<String> errors;
+
+    public ConfigValidationException(List<String> errors) {
+        super(String.join("; ", errors));
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
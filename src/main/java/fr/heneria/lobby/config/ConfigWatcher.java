@@ -0,0 +1,86 @@
+package fr.heneria.lobby.config;
+
+import fr.heneria.lobby.HeneriaLobby;
+import org.bukkit.Bukkit;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Watches the data folder and reloads when config.yml or menus.yml is saved.
+ * Editors often write a file in several steps, so changes are debounced.
+ */
+public class ConfigWatcher implements Runnable {
+
+    private static final Set<String> WATCHED_FILES = Set.of("config.yml", "menus.yml");
+    private static final long DEBOUNCE_MILLIS = 1000L;
+
+    private final HeneriaLobby plugin;
+    private WatchService watchService;
+    private Thread thread;
+
+    public ConfigWatcher(HeneriaLobby plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() throws IOException {
+        Path folder = plugin.getDataFolder().toPath();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        folder.register(watchService, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+
+        this.thread = new Thread(this, "HeneriaLobby-ConfigWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        if (watchService == null) return;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not stop the config watcher", e);
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = containsWatchedFile(key);
+                key.reset();
+                if (!changed) continue;
+
+                // Wait for the editor to finish writing, absorbing further events
+                WatchKey next;
+                while ((next = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    next.pollEvents();
+                    next.reset();
+                }
+
+                Bukkit.getScheduler().runTask(plugin, () -> plugin.getConfigManager().reload(Bukkit.getConsoleSender()));
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped
+        }
+    }
+
+    private boolean containsWatchedFile(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path path && WATCHED_FILES.contains(path.getFileName().toString())) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+}
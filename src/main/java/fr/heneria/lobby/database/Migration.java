@@ -0,0 +1,7 @@
+package fr.heneria.lobby.database;
+
+/**
+ * A schema change applied once, in version order, at startup.
+ */
+public record Migration(int version, String description, String sql) {
+}
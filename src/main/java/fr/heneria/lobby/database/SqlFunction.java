@@ -0,0 +1,13 @@
+package fr.heneria.lobby.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Work done with a pooled connection on a database thread.
+ */
+@FunctionalInterface
+public interface SqlFunction<T> {
+
+    T apply(Connection connection) throws SQLException;
+}
@@ -0,0 +1,54 @@
+package fr.heneria.lobby.item;
+
+import fr.heneria.lobby.manager.ActionManager;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+
+/**
+ * Inventory slot -> action id table of one player, recorded when the lobby kit is given.
+ * Lets interacts resolve their action without cloning the item meta to read the PDC,
+ * and lets a new kit skip the slots that already hold the same item.
+ */
+public class HotbarTable {
+
+    // Storage slots of the player inventory, the hotbar being 0-8
+    public static final int SIZE = 36;
+
+    private final Material[] types = new Material[SIZE];
+    private final int[] actions = new int[SIZE];
+    private final ItemStack[] given = new ItemStack[SIZE];
+
+    public HotbarTable() {
+        Arrays.fill(actions, ActionManager.NO_ACTION);
+    }
+
+    public void set(int slot, ItemStack item, int actionId) {
+        if (slot < 0 || slot >= SIZE) return;
+        types[slot] = item == null ? null : item.getType();
+        actions[slot] = item == null ? ActionManager.NO_ACTION : actionId;
+        given[slot] = item;
+    }
+
+    /**
+     * @return The recorded action if the item still looks like the one we gave, otherwise {@link ActionManager#NO_ACTION}.
+     */
+    public int get(int slot, ItemStack item) {
+        if (slot < 0 || slot >= SIZE || item == null) return ActionManager.NO_ACTION;
+        return types[slot] == item.getType() ? actions[slot] : ActionManager.NO_ACTION;
+    }
+
+    /**
+     * @return The item given in the slot, as built by the kit (not the inventory copy), or null.
+     */
+    public ItemStack getGiven(int slot) {
+        return slot < 0 || slot >= SIZE ? null : given[slot];
+    }
+
+    public void clear() {
+        Arrays.fill(types, null);
+        Arrays.fill(actions, ActionManager.NO_ACTION);
+        Arrays.fill(given, null);
+    }
+}
@@ -0,0 +1,93 @@
+package fr.heneria.lobby.item;
+
+import fr.heneria.lobby.manager.ActionManager;
+import fr.heneria.lobby.manager.PlaceholderManager;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.List;
+
+/**
+ * Immutable view of an item section (hotbar or menu), read once from YAML.
+ */
+public class ItemTemplate {
+
+    private final int slot;
+    private final String hdbId;
+    private final Material material;
+    private final boolean usePlayerHead;
+    private final String name;
+    private final List<String> lore;
+    private final String action;
+    private final int actionId;
+    private final boolean playerDependent;
+
+    private ItemTemplate(ConfigurationSection section, ActionManager actionManager, PlaceholderManager placeholderManager) {
+        this.slot = section.getInt("slot", -1);
+        this.hdbId = section.getString("hdb_id");
+        this.usePlayerHead = section.getBoolean("use_player_head", false);
+        this.material = Material.matchMaterial(section.getString("material", "STONE"));
+        this.name = section.getString("name");
+        this.lore = List.copyOf(section.getStringList("lore"));
+        String rawAction = section.getString("action");
+        this.action = (rawAction == null || rawAction.isEmpty()) ? null : rawAction;
+        this.actionId = actionManager.resolve(action);
+        // Tokenized here once, rendering then only looks the templates up
+        this.playerDependent = usePlayerHead || hasPlaceholder(placeholderManager, name)
+                || lore.stream().anyMatch(line -> hasPlaceholder(placeholderManager, line));
+    }
+
+    public static ItemTemplate fromSection(ConfigurationSection section, ActionManager actionManager, PlaceholderManager placeholderManager) {
+        return new ItemTemplate(section, actionManager, placeholderManager);
+    }
+
+    private static boolean hasPlaceholder(PlaceholderManager placeholderManager, String text) {
+        return text != null && placeholderManager.compile(text).hasTokens();
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public String getHdbId() {
+        return hdbId;
+    }
+
+    /**
+     * @return The configured material, or null if the name did not match.
+     */
+    public Material getMaterial() {
+        return material;
+    }
+
+    public boolean usePlayerHead() {
+        return usePlayerHead;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getLore() {
+        return lore;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    /**
+     * @return The id of the parsed action, or {@link ActionManager#NO_ACTION}.
+     */
+    public int getActionId() {
+        return actionId;
+    }
+
+    /**
+     * True when the rendered item can change between opens (player head or known placeholders),
+     * so it cannot be prebuilt once and shared.
+     */
+    public boolean isPlayerDependent() {
+        return playerDependent;
+    }
+}
@@ -0,0 +1,61 @@
+package fr.heneria.lobby.item;
+
+import fr.heneria.lobby.config.ConfigSnapshot;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+
+/**
+ * Hotbar items of one configuration snapshot. Items looking the same for every player are built
+ * once and cloned per player, the others (player head, placeholders) keep only their template.
+ */
+public class LobbyKit {
+
+    private final ConfigSnapshot snapshot;
+    private final List<Entry> entries;
+    private final ItemTemplate visibility;
+    private final ItemStack visibleItem;
+    private final ItemStack hiddenItem;
+
+    public LobbyKit(ConfigSnapshot snapshot, List<Entry> entries, ItemTemplate visibility, ItemStack visibleItem, ItemStack hiddenItem) {
+        this.snapshot = snapshot;
+        this.entries = List.copyOf(entries);
+        this.visibility = visibility;
+        this.visibleItem = visibleItem;
+        this.hiddenItem = hiddenItem;
+    }
+
+    /**
+     * @return The snapshot the kit was built from, a new snapshot needs a new kit.
+     */
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return Every hotbar item except visibility.
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return The visibility template, or null if it is not configured.
+     */
+    public ItemTemplate getVisibility() {
+        return visibility;
+    }
+
+    /**
+     * @return The shared visibility item of the state, or null if it must be built per player.
+     */
+    public ItemStack getVisibilityItem(boolean visible) {
+        return visible ? visibleItem : hiddenItem;
+    }
+
+    /**
+     * @param shared The prebuilt item, null when it must be built per player.
+     */
+    public record Entry(String key, ItemTemplate template, ItemStack shared) {
+    }
+}
@@ -1,24 +1,19 @@
 package fr.heneria.lobby.listeners;
 
 import fr.heneria.lobby.HeneriaLobby;
-import org.bukkit.Bukkit;
+import fr.heneria.lobby.manager.ActionManager;
+import org.bukkit.GameMode;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
-import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
-import net.kyori.adventure.text.Component;
-import net.kyori.adventure.text.format.NamedTextColor;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.UUID;
 
 public class InteractListener implements Listener {
 
     private final HeneriaLobby plugin;
-    private final Set<UUID> hiddenPlayers = new HashSet<>();
 
     public InteractListener(HeneriaLobby plugin) {
         this.plugin = plugin;
@@ -29,88 +24,33 @@ public class InteractListener implements Listener {
         if (event.getAction() == Action.RIGHT_CLICK_AIR || event.getAction() == Action.RIGHT_CLICK_BLOCK) {
             ItemStack item = event.getItem();
             if (item == null) return;
+            Player player = event.getPlayer();
 
-            String itemId = plugin.getItemManager().getPersistentItemId(item);
-            if (itemId != null) {
-                String action = plugin.getConfig().getString("hotbar_items." + itemId + ".action");
-                if (action != null) {
-                    handleAction(event.getPlayer(), action);
-                    event.setCancelled(true);
-                    return;
-                }
+            // Dropped before the item is even inspected
+            if (!plugin.getRateLimitManager().tryEvent(player)) {
+                if (player.getGameMode() != GameMode.CREATIVE) event.setCancelled(true);
+                return;
             }
 
-            String action = plugin.getItemManager().getPersistentAction(item);
-            if (action != null) {
-                handleAction(event.getPlayer(), action);
-                event.setCancelled(true);
+            // Fast path: the slot->action table recorded with the lobby kit, no ItemMeta clone
+            int actionId = ActionManager.NO_ACTION;
+            if (event.getHand() == EquipmentSlot.HAND && player.getGameMode() != GameMode.CREATIVE) {
+                actionId = plugin.getItemManager().getHotbarAction(player, player.getInventory().getHeldItemSlot(), item);
             }
-        }
-    }
-
-    @EventHandler
-    public void onInventoryClick(InventoryClickEvent event) {
-        if (event.getCurrentItem() == null) return;
-        if (!(event.getWhoClicked() instanceof Player)) return;
-        Player player = (Player) event.getWhoClicked();
-
-        String action = plugin.getItemManager().getPersistentAction(event.getCurrentItem());
-        if (action != null) {
-            event.setCancelled(true);
-            handleAction(player, action);
-        } else {
-             String itemId = plugin.getItemManager().getPersistentItemId(event.getCurrentItem());
-             if (itemId != null) {
-                 String confAction = plugin.getConfig().getString("hotbar_items." + itemId + ".action");
-                 if (confAction != null) {
-                     event.setCancelled(true);
-                     handleAction(player, confAction);
-                 }
-             }
-        }
-    }
-
-    private void handleAction(Player player, String action) {
-        if (action.startsWith("OPEN_MENU:")) {
-            String menuId = action.substring("OPEN_MENU:".length());
-            plugin.getMenuManager().openMenu(player, menuId);
-        } else if (action.startsWith("CONNECT:")) {
-            String server = action.substring("CONNECT:".length()).trim();
-            player.sendMessage(Component.text("Connecting to " + server + "...", NamedTextColor.GREEN));
-        } else if (action.equals("TOGGLE_VISIBILITY")) {
-             toggleVisibility(player);
-        }
-    }
-
-    private void toggleVisibility(Player player) {
-        boolean isHidden = hiddenPlayers.contains(player.getUniqueId());
-        if (isHidden) {
-            // Show players (Turn visibility ON)
-            hiddenPlayers.remove(player.getUniqueId());
-            for (Player online : Bukkit.getOnlinePlayers()) {
-                player.showPlayer(plugin, online);
+            if (actionId == ActionManager.NO_ACTION) {
+                actionId = plugin.getItemManager().getPersistentAction(item);
             }
-            player.sendMessage(Component.text("Joueurs visibles.", NamedTextColor.GREEN));
-        } else {
-            // Hide players (Turn visibility OFF)
-            hiddenPlayers.add(player.getUniqueId());
-            for (Player online : Bukkit.getOnlinePlayers()) {
-                player.hidePlayer(plugin, online);
+
+            if (actionId != ActionManager.NO_ACTION) {
+                handleAction(player, actionId);
+                event.setCancelled(true);
             }
-            player.sendMessage(Component.text("Joueurs masqués.", NamedTextColor.RED));
         }
-
-        // Update Item
-        // New state is !isHidden (if it was hidden, now visible, so true)
-        updateVisibilityItem(player, isHidden);
     }
 
-    private void updateVisibilityItem(Player player, boolean isVisible) {
-        ItemStack newItem = plugin.getConfigManager().getVisibilityItem(player, isVisible);
-        // We need to find the visibility slot. ConfigManager has it.
-        int slot = plugin.getConfigManager().getSlot("hotbar_items.visibility");
-        if (slot >= 0 && slot < 9) {
-            player.getInventory().setItem(slot, newItem);
-        }
+    private void handleAction(Player player, int actionId) {
+        if (!plugin.getRateLimitManager().tryAction(player, actionId)) return;
+        plugin.getAnalyticsManager().record(player, actionId, null);
+        plugin.getActionManager().execute(player, actionId);
     }
 }
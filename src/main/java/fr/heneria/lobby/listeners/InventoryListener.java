@@ -1,14 +1,19 @@
 package fr.heneria.lobby.listeners;
 
 import fr.heneria.lobby.HeneriaLobby;
+import fr.heneria.lobby.manager.ActionManager;
+import fr.heneria.lobby.menu.MenuSession;
 import org.bukkit.GameMode;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryDragEvent;
-import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+import org.bukkit.inventory.InventoryHolder;
 
 public class InventoryListener implements Listener {
 
@@ -18,25 +23,66 @@ public class InventoryListener implements Listener {
         this.plugin = plugin;
     }
 
-    @EventHandler
+    /**
+     * Single click dispatcher: protects lobby inventories and runs menu / hotbar actions.
+     */
+    @EventHandler(priority = EventPriority.HIGH)
     public void onInventoryClick(InventoryClickEvent event) {
+        if (!(event.getWhoClicked() instanceof Player player)) return;
+
+        // Lobby menus: never editable, even in creative. The slot gives the action directly.
+        InventoryHolder holder = event.getView().getTopInventory().getHolder(false);
+        if (holder instanceof MenuSession session) {
+            event.setCancelled(true);
+            if (event.getClickedInventory() == session.getInventory()) {
+                dispatch(player, session.getAction(event.getSlot()), session.getTemplate().getId());
+            } else if (event.getClickedInventory() == player.getInventory() && player.getGameMode() != GameMode.CREATIVE) {
+                // Lobby items below the menu keep working
+                dispatchHotbar(player, event);
+            }
+            return;
+        }
+
         // Global protection for all inventories for non-creative players in Lobby
-        // This covers both the Player Inventory (Hotbar protection) and Custom Menus (GUI protection).
-        if (event.getWhoClicked().getGameMode() == GameMode.CREATIVE) return;
+        // This covers the Player Inventory (Hotbar protection).
+        if (player.getGameMode() == GameMode.CREATIVE) return;
 
         // If clicked outside
         if (event.getClickedInventory() == null) return;
 
-        // Cancel all clicks by default to ensure "Inamovible" behavior and Menu protection.
-        // If we want to allow specific interactions (like clicking a button), the InteractListener
-        // will handle the logic (reading the action) but the EVENT itself should be cancelled
-        // to prevent the item from being picked up.
-
+        // Cancel all clicks by default to ensure "Inamovible" behavior.
         event.setCancelled(true);
 
-        // Note: Logic for executing actions is handled in InteractListener (which listens to the same event but focuses on the action).
-        // To avoid conflict/double handling, we can either merge them or let this one purely handle "Protection" (Cancelling).
-        // InteractListener will read the item, do the action, and since it's cancelled here, the item won't move.
+        if (event.getClickedInventory() != player.getInventory()) return;
+        dispatchHotbar(player, event);
+    }
+
+    private void dispatchHotbar(Player player, InventoryClickEvent event) {
+        if (event.getCurrentItem() == null) return;
+        if (!plugin.getRateLimitManager().tryEvent(player)) return;
+        int actionId = plugin.getItemManager().getHotbarAction(player, event.getSlot(), event.getCurrentItem());
+        if (actionId == ActionManager.NO_ACTION) {
+            actionId = plugin.getItemManager().getPersistentAction(event.getCurrentItem());
+        }
+        if (actionId != ActionManager.NO_ACTION && plugin.getRateLimitManager().tryAction(player, actionId)) {
+            plugin.getAnalyticsManager().record(player, actionId, null);
+            plugin.getActionManager().execute(player, actionId);
+        }
+    }
+
+    private void dispatch(Player player, int actionId, String menuId) {
+        if (actionId == ActionManager.NO_ACTION) return;
+        if (!plugin.getRateLimitManager().tryEvent(player)) return;
+        if (!plugin.getRateLimitManager().tryAction(player, actionId)) return;
+        plugin.getAnalyticsManager().record(player, actionId, menuId);
+        plugin.getActionManager().execute(player, actionId);
+    }
+
+    @EventHandler
+    public void onInventoryClose(InventoryCloseEvent event) {
+        if (event.getInventory().getHolder(false) instanceof MenuSession session) {
+            plugin.getMenuManager().closeSession(session);
+        }
     }
 
     @EventHandler
@@ -0,0 +1,28 @@
+package fr.heneria.lobby.listeners;
+
+import fr.heneria.lobby.HeneriaLobby;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+public class PlayerQuitListener implements Listener {
+
+    private final HeneriaLobby plugin;
+
+    public PlayerQuitListener(HeneriaLobby plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        plugin.getItemManager().clearHotbar(event.getPlayer().getUniqueId());
+        plugin.getVisibilityManager().handleQuit(event.getPlayer());
+        plugin.getPreferenceManager().unload(event.getPlayer().getUniqueId());
+        plugin.getProfileManager().unload(event.getPlayer().getUniqueId());
+        plugin.getSkinManager().unload(event.getPlayer().getUniqueId());
+        plugin.getPlaceholderManager().unload(event.getPlayer().getUniqueId());
+        plugin.getMenuManager().removeSession(event.getPlayer().getUniqueId());
+        plugin.getConnectManager().remove(event.getPlayer().getUniqueId());
+        plugin.getRateLimitManager().unload(event.getPlayer());
+    }
+}
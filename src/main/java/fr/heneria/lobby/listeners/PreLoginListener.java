@@ -0,0 +1,38 @@
+package fr.heneria.lobby.listeners;
+
+import fr.heneria.lobby.HeneriaLobby;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
+
+public class PreLoginListener implements Listener {
+
+    private final HeneriaLobby plugin;
+
+    public PreLoginListener(HeneriaLobby plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+
+        // Runs off the main thread, blocking database reads are fine here
+        plugin.getPreferenceManager().load(event.getUniqueId());
+        plugin.getProfileManager().prefetch(event.getUniqueId(), event.getName());
+        plugin.getSkinManager().prefetch(event.getUniqueId(), event.getName(), event.getPlayerProfile());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLogin(PlayerLoginEvent event) {
+        // Refused after the pre-login (whitelist, full server...): no quit event will follow.
+        // A client dropping before this event is left to the periodic sweep of the managers.
+        if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+            plugin.getPreferenceManager().unload(event.getPlayer().getUniqueId());
+            plugin.getProfileManager().unload(event.getPlayer().getUniqueId());
+            plugin.getSkinManager().unload(event.getPlayer().getUniqueId());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package fr.heneria.lobby.manager;
+
+import fr.heneria.lobby.HeneriaLobby;
+import fr.heneria.lobby.action.ActionType;
+import fr.heneria.lobby.action.ConnectAction;
+import fr.heneria.lobby.action.LobbyAction;
+import fr.heneria.lobby.action.OpenMenuAction;
+import fr.heneria.lobby.action.PageAction;
+import fr.heneria.lobby.action.QuickJoinAction;
+import fr.heneria.lobby.action.ToggleVisibilityAction;
+import fr.heneria.lobby.metrics.Metric;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Registry of parsed actions. Each distinct action string is parsed once and
+ * given a compact id, which is what items store in their PDC. Ids are stable
+ * for the lifetime of the server, so dispatching a click is an array lookup.
+ */
+public class ActionManager extends Manager {
+
+    public static final int NO_ACTION = -1;
+
+    private final Map<String, ActionType> types = new HashMap<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private volatile LobbyAction[] actions = new LobbyAction[0];
+    private volatile String[] typeNames = new String[0];
+    private volatile String[] raws = new String[0];
+
+    public ActionManager(HeneriaLobby plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public void onEnable() {
+        registerType(new SimpleActionType("OPEN_MENU", argument ->
+                argument.isEmpty() ? null : new OpenMenuAction(plugin, argument)));
+        registerType(new SimpleActionType("CONNECT", argument ->
+                argument.isEmpty() ? null : new ConnectAction(plugin, argument)));
+        ToggleVisibilityAction toggleVisibility = new ToggleVisibilityAction(plugin);
+        registerType(new SimpleActionType("TOGGLE_VISIBILITY", argument -> toggleVisibility));
+        PageAction nextPage = new PageAction(plugin, 1);
+        registerType(new SimpleActionType("PAGE_NEXT", argument -> nextPage));
+        PageAction previousPage = new PageAction(plugin, -1);
+        registerType(new SimpleActionType("PAGE_PREV", argument -> previousPage));
+        QuickJoinAction quickJoin = new QuickJoinAction(plugin);
+        registerType(new SimpleActionType("QUICK_JOIN", argument -> quickJoin));
+    }
+
+    @Override
+    public void onDisable() {
+        // Ids must stay valid for items still held by players, nothing to clear
+    }
+
+    /**
+     * Registers a type. Actions that failed to parse before are parsed again the next time they are resolved,
+     * so items and menus compiled after a late registration (e.g. on reload) pick the new type up.
+     */
+    public synchronized void registerType(ActionType type) {
+        types.put(type.getName().toUpperCase(Locale.ROOT), type);
+        ids.values().removeIf(id -> id == NO_ACTION);
+    }
+
+    /**
+     * Parses the action (once) and returns its id.
+     * @return The action id, or {@link #NO_ACTION} if the action is empty, unknown or invalid.
+     */
+    public synchronized int resolve(String raw) {
+        if (raw == null || raw.isBlank()) return NO_ACTION;
+
+        Integer known = ids.get(raw);
+        if (known != null) return known;
+
+        int separator = raw.indexOf(':');
+        String name = (separator < 0 ? raw : raw.substring(0, separator)).trim().toUpperCase(Locale.ROOT);
+        String argument = separator < 0 ? "" : raw.substring(separator + 1).trim();
+
+        ActionType type = types.get(name);
+        LobbyAction action = type == null ? null : type.parse(argument);
+        if (action == null) {
+            plugin.getLogger().warning("Invalid action: " + raw);
+            // Remembered so the warning is logged once, until another type is registered
+            ids.put(raw, NO_ACTION);
+            return NO_ACTION;
+        }
+
+        LobbyAction[] current = actions;
+        LobbyAction[] grown = new LobbyAction[current.length + 1];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        grown[current.length] = action;
+        String[] grownNames = new String[current.length + 1];
+        System.arraycopy(typeNames, 0, grownNames, 0, current.length);
+        grownNames[current.length] = name;
+        String[] grownRaws = new String[current.length + 1];
+        System.arraycopy(raws, 0, grownRaws, 0, current.length);
+        grownRaws[current.length] = raw;
+        raws = grownRaws;
+        typeNames = grownNames;
+        actions = grown;
+
+        ids.put(raw, current.length);
+        return current.length;
+    }
+
+    /**
+     * @return Every action parsed so far, indexed by id.
+     */
+    public List<LobbyAction> getActions() {
+        return List.of(actions);
+    }
+
+    public LobbyAction getAction(int id) {
+        LobbyAction[] current = actions;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * @return The type name of the action (e.g. {@code OPEN_MENU}), or null for an unknown id.
+     */
+    public String getTypeName(int id) {
+        String[] current = typeNames;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * @return The action as written in the configuration (e.g. {@code CONNECT: lobby1}), or null for an unknown id.
+     */
+    public String getRaw(int id) {
+        String[] current = raws;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    /**
+     * @return True if the id matched an action and it was executed.
+     */
+    public boolean execute(Player player, int id) {
+        LobbyAction action = getAction(id);
+        if (action == null) return false;
+        long start = System.nanoTime();
+        action.execute(player);
+        plugin.getMetricsManager().record(Metric.ACTION, start);
+        return true;
+    }
+
+    private record SimpleActionType(String name, Function<String, LobbyAction> parser) implements ActionType {
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public LobbyAction parse(String argument) {
+            return parser.apply(argument);
+        }
+    }
+}
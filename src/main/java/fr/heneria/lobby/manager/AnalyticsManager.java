@@ -0,0 +1,234 @@
+package fr.heneria.lobby.manager;
+
+import fr.heneria.lobby.HeneriaLobby;
+import fr.heneria.lobby.analytics.AnalyticsBuffer;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+/**
+ * Click analytics: which actions are used, from which menu. Clicks are offered to a preallocated
+ * {@link AnalyticsBuffer} on the dispatch path and written in batches by a background flusher,
+ * to the {@code lobby_analytics} table or, without database, to a rolling CSV file.
+ */
+public class AnalyticsManager extends Manager {
+
+    private static final String INSERT = "INSERT INTO lobby_analytics (uuid, action, menu, clicked_at) VALUES (?, ?, ?, ?)";
+    private static final String FILE_HEADER = "timestamp,uuid,action,menu\n";
+    private static final long WRITE_TIMEOUT_SECONDS = 10;
+
+    private final Map<String, Integer> menuIndexes = new ConcurrentHashMap<>();
+    private final LongAdder failed = new LongAdder();
+    private volatile String[] menuNames = new String[0];
+    private volatile AnalyticsBuffer buffer;
+    private int batchSize;
+    private File file;
+    private long maxFileBytes;
+    private int maxFiles;
+    private BukkitTask task;
+
+    public AnalyticsManager(HeneriaLobby plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public List<Class<? extends Manager>> getDependencies() {
+        return List.of(ConfigManager.class, DatabaseManager.class, ActionManager.class);
+    }
+
+    @Override
+    public void onEnable() {
+        ConfigurationSection section = plugin.getConfig().getConfigurationSection("analytics");
+        if (section == null || !section.getBoolean("enabled", false)) return;
+
+        this.batchSize = Math.max(1, section.getInt("batch_size", 500));
+        if (!plugin.getDatabaseManager().isEnabled()) {
+            String fileName = section.getString("file", "analytics.csv");
+            if (fileName == null || fileName.isBlank()) {
+                plugin.getLogger().info("Analytics disabled: no database and no file configured.");
+                return;
+            }
+            this.file = new File(plugin.getDataFolder(), fileName);
+            this.maxFileBytes = Math.max(1, section.getLong("max_file_size_kb", 10240)) * 1024L;
+            this.maxFiles = Math.max(1, section.getInt("max_files", 5));
+        }
+
+        this.buffer = new AnalyticsBuffer(Math.max(64, section.getInt("buffer_size", 16384)));
+        long interval = Math.max(1, section.getLong("flush_interval_seconds", 10)) * 20L;
+        this.task = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+            // Kept in the buffer while the database is not ready yet
+            if (file != null || plugin.getDatabaseManager().ready().isDone()) {
+                flush(System.nanoTime() + TimeUnit.SECONDS.toNanos(WRITE_TIMEOUT_SECONDS));
+            }
+        }, interval, interval);
+    }
+
+    @Override
+    public void onDisable() {
+        if (task != null) {
+            task.cancel();
+        }
+        if (buffer == null) return;
+
+        // Last events, bounded so an unreachable database does not hold the shutdown.
+        // The database executor is drained after this manager.
+        if (file != null || plugin.getDatabaseManager().ready().isDone()) {
+            flush(System.nanoTime() + TimeUnit.SECONDS.toNanos(WRITE_TIMEOUT_SECONDS));
+        }
+        int lost = buffer.size();
+        if (lost > 0) {
+            failed.add(lost);
+            plugin.getLogger().warning("Could not write " + lost + " analytics events on shutdown.");
+        }
+    }
+
+    /**
+     * Records a click that triggered the action. Never blocks nor allocates once the menu is known.
+     * @param menuId The menu clicked in, null for the hotbar.
+     */
+    public void record(Player player, int actionId, String menuId) {
+        AnalyticsBuffer current = buffer;
+        if (current == null) return;
+        UUID uuid = player.getUniqueId();
+        current.offer(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), actionId,
+                menuId == null ? -1 : getMenuIndex(menuId), System.currentTimeMillis());
+    }
+
+    public boolean isEnabled() {
+        return buffer != null;
+    }
+
+    public int getPendingCount() {
+        AnalyticsBuffer current = buffer;
+        return current == null ? 0 : current.size();
+    }
+
+    /**
+     * @return Events dropped because the buffer was full.
+     */
+    public long getDroppedCount() {
+        AnalyticsBuffer current = buffer;
+        return current == null ? 0 : current.getDroppedCount();
+    }
+
+    /**
+     * @return Events lost because the database or the file could not be written.
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    private int getMenuIndex(String menuId) {
+        Integer index = menuIndexes.get(menuId);
+        return index != null ? index : registerMenu(menuId);
+    }
+
+    private synchronized int registerMenu(String menuId) {
+        Integer index = menuIndexes.get(menuId);
+        if (index != null) return index;
+
+        String[] current = menuNames;
+        String[] grown = new String[current.length + 1];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        grown[current.length] = menuId;
+        menuNames = grown;
+        menuIndexes.put(menuId, current.length);
+        return current.length;
+    }
+
+    /**
+     * Drains the buffer batch after batch, until it is empty or the deadline is reached.
+     * Synchronized as the buffer only supports one consumer.
+     */
+    private synchronized void flush(long deadlineNanos) {
+        ActionManager actionManager = plugin.getActionManager();
+        String[] menus = menuNames;
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        StringBuilder lines = new StringBuilder();
+
+        while (true) {
+            rows.clear();
+            lines.setLength(0);
+            int drained = buffer.drain((playerMost, playerLeast, action, menu, timestamp) -> {
+                String uuid = new UUID(playerMost, playerLeast).toString();
+                String raw = actionManager.getRaw(action);
+                String menuId = menu >= 0 && menu < menus.length ? menus[menu] : null;
+                if (file == null) {
+                    rows.add(new Object[]{uuid, raw, menuId, new Timestamp(timestamp)});
+                } else {
+                    lines.append(timestamp).append(',').append(uuid).append(',')
+                            .append(csv(raw)).append(',').append(csv(menuId)).append('\n');
+                }
+            }, batchSize);
+            if (drained == 0) return;
+
+            try {
+                if (file == null) {
+                    plugin.getDatabaseManager().executeBatch(INSERT, rows)
+                            .get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } else {
+                    append(lines);
+                }
+            } catch (ExecutionException | TimeoutException | IOException e) {
+                failed.add(drained);
+                plugin.getLogger().log(Level.WARNING, "Could not write " + drained + " analytics events", e);
+                return;
+            } catch (InterruptedException e) {
+                failed.add(drained);
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (System.nanoTime() >= deadlineNanos) return;
+        }
+    }
+
+    private void append(CharSequence lines) throws IOException {
+        Path path = file.toPath();
+        if (Files.exists(path) && Files.size(path) >= maxFileBytes) {
+            roll(path);
+        }
+        if (!Files.exists(path)) {
+            Files.writeString(path, FILE_HEADER, StandardCharsets.UTF_8);
+        }
+        Files.writeString(path, lines, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Shifts {@code file.1 .. file.n-1} up by one, dropping the oldest, and moves the full file to {@code file.1}.
+     */
+    private void roll(Path path) throws IOException {
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path rolled = path.resolveSibling(path.getFileName() + "." + i);
+            if (Files.exists(rolled)) {
+                Files.move(rolled, path.resolveSibling(path.getFileName() + "." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(path, path.resolveSibling(path.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,11 +1,28 @@
 package fr.heneria.lobby.manager;
 
+import com.destroystokyo.paper.profile.PlayerProfile;
 import fr.heneria.lobby.HeneriaLobby;
+import fr.heneria.lobby.action.OpenMenuAction;
+import fr.heneria.lobby.config.ConfigSnapshot;
+import fr.heneria.lobby.config.ConfigValidationException;
+import fr.heneria.lobby.config.ConfigWatcher;
+import fr.heneria.lobby.item.ItemTemplate;
+import fr.heneria.lobby.menu.MenuPagination;
+import fr.heneria.lobby.menu.MenuTemplate;
+import fr.heneria.lobby.placeholder.PlaceholderTemplate;
+import fr.heneria.lobby.util.ComponentCache;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
+import org.bukkit.command.CommandSender;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
@@ -14,46 +31,263 @@ import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.SkullMeta;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 public class ConfigManager extends Manager {
 
-    private FileConfiguration menusConfig;
+    private final AtomicReference<ConfigSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong reloadCounter = new AtomicLong();
+    private long publishedReload;
+    private File configFile;
     private File menusFile;
+    private YamlConfiguration initialMenus;
+    private ComponentCache componentCache = new ComponentCache(512);
+    // Texts with their placeholder values inserted, and the formatted values themselves
+    private ComponentCache resolvedCache = new ComponentCache(1024);
+    private final ComponentCache formattedCache = new ComponentCache(64);
+    private ConfigWatcher watcher;
 
     public ConfigManager(HeneriaLobby plugin) {
         super(plugin);
     }
 
     @Override
-    public void onEnable() {
-        // Load config.yml
+    public void load() {
+        // Parsing the files does not need the main thread
         plugin.saveDefaultConfig();
         plugin.reloadConfig();
+        configFile = new File(plugin.getDataFolder(), "config.yml");
 
-        // Load menus.yml
         menusFile = new File(plugin.getDataFolder(), "menus.yml");
         if (!menusFile.exists()) {
             plugin.saveResource("menus.yml", false);
         }
-        menusConfig = YamlConfiguration.loadConfiguration(menusFile);
+        initialMenus = YamlConfiguration.loadConfiguration(menusFile);
+    }
+
+    @Override
+    public void onEnable() {
+        componentCache = new ComponentCache(plugin.getConfig().getInt("cache.components", 512));
+        resolvedCache = new ComponentCache(plugin.getConfig().getInt("cache.resolved_components", 1024));
+
+        // Raw snapshot until the other managers are ready to compile items and menus (see publishInitial)
+        snapshot.set(new ConfigSnapshot(plugin.getConfig(), initialMenus, Map.of(), Map.of(), List.of()));
+        initialMenus = null;
+
+        if (plugin.getConfig().getBoolean("reload.watch_files", false)) {
+            try {
+                watcher = new ConfigWatcher(plugin);
+                watcher.start();
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Could not watch the configuration files", e);
+            }
+        }
     }
 
     @Override
     public void onDisable() {
-        // No specific disable logic needed
+        if (watcher != null) {
+            watcher.stop();
+        }
+    }
+
+    /**
+     * @return The current snapshot. Keep the reference for the duration of a task
+     * to read consistent values even if a reload is published meanwhile.
+     */
+    public ConfigSnapshot getSnapshot() {
+        return snapshot.get();
     }
 
     public FileConfiguration getMenusConfig() {
-        if (menusConfig == null) {
-             menusConfig = YamlConfiguration.loadConfiguration(menusFile);
+        return snapshot.get().getMenusConfig();
+    }
+
+    public ItemTemplate getHotbarItem(String key) {
+        return snapshot.get().getHotbarItem(key);
+    }
+
+    /**
+     * Publishes the first complete snapshot, loaded during {@link MenuManager#load()}.
+     * @param loaded Null if the configuration is invalid.
+     * @param error The validation errors, if any.
+     */
+    public void publishInitial(ConfigSnapshot loaded, ConfigValidationException error) {
+        if (loaded != null) {
+            publish(loaded, reloadCounter.incrementAndGet());
+            loaded.getWarnings().forEach(warning -> plugin.getLogger().warning(warning));
+        } else if (error != null) {
+            error.getErrors().forEach(message -> plugin.getLogger().severe(message));
+            plugin.getLogger().severe("Invalid configuration, hotbar items and menus are disabled until it is fixed.");
+        }
+    }
+
+    /**
+     * Parses and validates config.yml and menus.yml off the main thread, then swaps the snapshot
+     * and queues the new lobby kit for online players. On errors the current snapshot is kept.
+     * @param sender Receives the result, may be null.
+     */
+    public CompletableFuture<ConfigSnapshot> reload(CommandSender sender) {
+        long reloadId = reloadCounter.incrementAndGet();
+        CompletableFuture<ConfigSnapshot> future = new CompletableFuture<>();
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                ConfigSnapshot loaded = loadSnapshot();
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (publish(loaded, reloadId)) {
+                        plugin.getItemManager().queueLobbyItems(Bukkit.getOnlinePlayers());
+                    }
+                    if (sender != null) {
+                        loaded.getWarnings().forEach(warning -> sender.sendMessage(Component.text(warning, NamedTextColor.YELLOW)));
+                        sender.sendMessage(Component.text("Configuration rechargée (" + loaded.getMenus().size() + " menus).", NamedTextColor.GREEN));
+                    }
+                    future.complete(loaded);
+                });
+            } catch (ConfigValidationException e) {
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    e.getErrors().forEach(error -> plugin.getLogger().severe(error));
+                    if (sender != null) {
+                        e.getErrors().forEach(error -> sender.sendMessage(Component.text(error, NamedTextColor.RED)));
+                        sender.sendMessage(Component.text("Configuration invalide, l'ancienne est conservée.", NamedTextColor.RED));
+                    }
+                    future.completeExceptionally(e);
+                });
+            } catch (RuntimeException e) {
+                // Bad material, provider or HeadDatabase error...: reported like a validation error
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    plugin.getLogger().log(Level.SEVERE, "Configuration reload failed", e);
+                    if (sender != null) {
+                        sender.sendMessage(Component.text("Erreur lors du rechargement : " + e, NamedTextColor.RED));
+                        sender.sendMessage(Component.text("Configuration invalide, l'ancienne est conservée.", NamedTextColor.RED));
+                    }
+                    future.completeExceptionally(e);
+                });
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Single atomic swap. A slower reload never replaces the result of a more recent one.
+     */
+    private boolean publish(ConfigSnapshot loaded, long reloadId) {
+        synchronized (snapshot) {
+            if (reloadId < publishedReload) return false;
+            publishedReload = reloadId;
+            snapshot.set(loaded);
+            return true;
+        }
+    }
+
+    /**
+     * Builds a complete snapshot from the files. Only reads the files and thread-safe managers,
+     * so it can run off the main thread.
+     */
+    public ConfigSnapshot loadSnapshot() throws ConfigValidationException {
+        List<String> errors = new ArrayList<>();
+        List<String> warnings = new ArrayList<>();
+
+        YamlConfiguration config = loadYaml(configFile, errors);
+        YamlConfiguration menusConfig = loadYaml(menusFile, errors);
+        if (!errors.isEmpty()) throw new ConfigValidationException(errors);
+        if (plugin.getConfig().getDefaults() != null) {
+            config.setDefaults(plugin.getConfig().getDefaults());
+        }
+
+        // Hotbar
+        Map<String, ItemTemplate> hotbarItems = new HashMap<>();
+        ConfigurationSection hotbarSection = config.getConfigurationSection("hotbar_items");
+        if (hotbarSection != null) {
+            for (String key : hotbarSection.getKeys(false)) {
+                ConfigurationSection itemSection = hotbarSection.getConfigurationSection(key);
+                if (itemSection == null) continue;
+
+                ItemTemplate template = ItemTemplate.fromSection(itemSection, plugin.getActionManager(), plugin.getPlaceholderManager());
+                if (template.getSlot() < 0 || template.getSlot() >= 36) {
+                    errors.add("Hotbar item " + key + ": slot " + template.getSlot() + " is outside the inventory");
+                }
+                if (template.getAction() != null && template.getActionId() == ActionManager.NO_ACTION) {
+                    errors.add("Hotbar item " + key + ": invalid action '" + template.getAction() + "'");
+                }
+                hotbarItems.put(key, template);
+            }
+        }
+
+        // Menus
+        Map<String, MenuTemplate> menus = plugin.getMenuManager().compileMenus(
+                menusConfig.getConfigurationSection("menus"), errors, warnings);
+
+        // Actions: OPEN_MENU must target an existing menu
+        for (ItemTemplate template : hotbarItems.values()) {
+            checkMenuTarget(template.getActionId(), menus, errors);
+        }
+        for (MenuTemplate menu : menus.values()) {
+            for (int actionId : menu.getSlotActions()) {
+                checkMenuTarget(actionId, menus, errors);
+            }
+            MenuPagination pagination = menu.getPagination();
+            for (int i = 0; pagination != null && i < pagination.getEntryCount(); i++) {
+                checkMenuTarget(pagination.getEntry(i).getActionId(), menus, errors);
+            }
+        }
+
+        if (!errors.isEmpty()) throw new ConfigValidationException(errors);
+        return new ConfigSnapshot(config, menusConfig, hotbarItems, menus, warnings);
+    }
+
+    private void checkMenuTarget(int actionId, Map<String, MenuTemplate> menus, List<String> errors) {
+        if (plugin.getActionManager().getAction(actionId) instanceof OpenMenuAction openMenu
+                && !menus.containsKey(openMenu.getMenuId())) {
+            String error = "OPEN_MENU:" + openMenu.getMenuId() + " targets an unknown menu";
+            if (!errors.contains(error)) errors.add(error);
+        }
+    }
+
+    private YamlConfiguration loadYaml(File file, List<String> errors) {
+        YamlConfiguration yaml = new YamlConfiguration();
+        try {
+            yaml.load(file);
+        } catch (IOException | InvalidConfigurationException e) {
+            errors.add(file.getName() + ": " + e.getMessage());
+        }
+        return yaml;
+    }
+
+    /**
+     * Collects every HeadDatabase id referenced by config.yml and menus.yml
+     * ({@code hdb_id}, {@code hdb_id_on} and {@code hdb_id_off}).
+     */
+    public Set<String> collectHdbIds() {
+        ConfigSnapshot current = snapshot.get();
+        Set<String> ids = new LinkedHashSet<>();
+        collectHdbIds(current.getConfig(), ids);
+        collectHdbIds(current.getMenusConfig(), ids);
+        return ids;
+    }
+
+    private void collectHdbIds(ConfigurationSection root, Set<String> ids) {
+        for (String path : root.getKeys(true)) {
+            if (path.endsWith("hdb_id") || path.endsWith("hdb_id_on") || path.endsWith("hdb_id_off")) {
+                String id = root.getString(path);
+                if (id != null && !id.isEmpty()) ids.add(id);
+            }
         }
-        return menusConfig;
     }
 
     public ItemStack getItem(String path, Player player, String itemId) {
-        ConfigurationSection section = plugin.getConfig().getConfigurationSection(path);
+        ConfigurationSection section = snapshot.get().getConfig().getConfigurationSection(path);
         if (section == null) return null;
         return buildItemFromSection(section, player, itemId);
     }
@@ -69,8 +303,9 @@ public class ConfigManager extends Manager {
      * @param onState True for ON, False for OFF.
      */
     public ItemStack getVisibilityItem(Player player, boolean onState) {
-        ConfigurationSection section = plugin.getConfig().getConfigurationSection("hotbar_items.visibility");
-        if (section == null) return null;
+        ConfigurationSection section = snapshot.get().getConfig().getConfigurationSection("hotbar_items.visibility");
+        ItemTemplate template = getHotbarItem("visibility");
+        if (section == null || template == null) return null;
 
         String hdbIdKey = onState ? "hdb_id_on" : "hdb_id_off";
         String nameKey = onState ? "name_on" : "name_off";
@@ -102,25 +337,28 @@ public class ConfigManager extends Manager {
              item.setItemMeta(meta);
 
              plugin.getItemManager().addPersistentItemId(item, "visibility");
-             plugin.getItemManager().addPersistentAction(item, "TOGGLE_VISIBILITY");
+             plugin.getItemManager().addPersistentAction(item, template.getActionId());
         }
 
         return item;
     }
 
     private ItemStack buildItemFromSection(ConfigurationSection section, Player player, String itemId) {
+        return buildItem(ItemTemplate.fromSection(section, plugin.getActionManager(), plugin.getPlaceholderManager()), player, itemId);
+    }
+
+    public ItemStack buildItem(ItemTemplate template, Player player, String itemId) {
         ItemStack item;
-        String hdbId = section.getString("hdb_id");
-        boolean usePlayerHead = section.getBoolean("use_player_head", false);
-        String materialName = section.getString("material", "STONE");
-        Material material = Material.matchMaterial(materialName);
+        String hdbId = template.getHdbId();
+        Material material = template.getMaterial();
 
         // 1. Resolve the Base Item
-        if (usePlayerHead) {
+        if (template.usePlayerHead()) {
             item = new ItemStack(Material.PLAYER_HEAD);
-            SkullMeta meta = (SkullMeta) item.getItemMeta();
-            if (meta != null) {
-                meta.setOwningPlayer(player);
+            // Plain head until the texture is resolved, see SkinManager
+            PlayerProfile profile = player == null ? null : plugin.getSkinManager().getProfile(player.getUniqueId());
+            if (profile != null && item.getItemMeta() instanceof SkullMeta meta) {
+                meta.setPlayerProfile(profile);
                 item.setItemMeta(meta);
             }
         } else if (hdbId != null && !hdbId.isEmpty()) {
@@ -138,12 +376,12 @@ public class ConfigManager extends Manager {
         // 2. Apply Meta (Name, Lore)
         ItemMeta meta = item.getItemMeta();
         if (meta != null) {
-            String name = section.getString("name");
+            String name = template.getName();
             if (name != null) {
                 meta.displayName(parseComponent(name, player));
             }
 
-            List<String> lore = section.getStringList("lore");
+            List<String> lore = template.getLore();
             if (!lore.isEmpty()) {
                 meta.lore(lore.stream()
                         .map(line -> parseComponent(line, player))
@@ -156,27 +394,63 @@ public class ConfigManager extends Manager {
                 plugin.getItemManager().addPersistentItemId(item, itemId);
             }
 
-            String action = section.getString("action");
-            if (action != null && !action.isEmpty()) {
-                plugin.getItemManager().addPersistentAction(item, action);
-            }
+            plugin.getItemManager().addPersistentAction(item, template.getActionId());
         }
 
         return item;
     }
 
     public int getSlot(String path) {
-        return plugin.getConfig().getInt(path + ".slot", -1);
+        return snapshot.get().getConfig().getInt(path + ".slot", -1);
     }
 
     public Component parseComponent(String text, Player player) {
         if (text == null) return Component.empty();
 
-        if (player != null) {
-            text = text.replace("%player%", player.getName());
+        PlaceholderManager placeholderManager = plugin.getPlaceholderManager();
+        PlaceholderTemplate template = placeholderManager.compile(text);
+        if (!template.hasTokens()) return componentCache.get(text, this::deserialize);
+
+        if (isLegacy(text)) {
+            // No gradients in legacy texts: the values are inserted into the cached tree
+            return componentCache.get(text, this::deserialize).replaceText(TextReplacementConfig.builder()
+                    .match(PlaceholderManager.PLACEHOLDER_PATTERN)
+                    .replacement((match, builder) -> {
+                        PlaceholderTemplate.Token token = template.getToken(match.group(1));
+                        String value = token == null ? null : placeholderManager.resolve(token, player);
+                        return value == null ? builder : builder.content(value);
+                    })
+                    .build());
         }
 
-        if (text.contains("&") && !text.contains("<")) {
+        // Values are inserted by tag resolvers while parsing, so they take the style of the tags around them.
+        // Each combination of values is parsed once, in its own cache so per-player values do not evict the templates.
+        List<PlaceholderTemplate.Token> tokens = template.getTagTokens();
+        TagResolver.Builder resolver = TagResolver.builder();
+        StringBuilder key = new StringBuilder(template.getTagged());
+        for (int i = 0; i < tokens.size(); i++) {
+            PlaceholderTemplate.Token token = tokens.get(i);
+            String value = placeholderManager.resolve(token, player);
+            Component inserted;
+            if (value == null) {
+                inserted = Component.text("%" + token.key() + "%");
+            } else if (token.provider().isFormatted()) {
+                inserted = formattedCache.get(value, MiniMessage.miniMessage()::deserialize);
+            } else {
+                inserted = Component.text(value);
+            }
+            resolver.resolver(Placeholder.component("ph_" + i, inserted));
+            key.append('\0').append(value);
+        }
+        return resolvedCache.get(key.toString(), ignored -> MiniMessage.miniMessage().deserialize(template.getTagged(), resolver.build()));
+    }
+
+    private static boolean isLegacy(String text) {
+        return text.contains("&") && !text.contains("<");
+    }
+
+    private Component deserialize(String text) {
+        if (isLegacy(text)) {
              // Very simple check. If it has <, assume MiniMessage.
              return LegacyComponentSerializer.legacyAmpersand().deserialize(text);
         } else {
@@ -184,4 +458,8 @@ public class ConfigManager extends Manager {
             return MiniMessage.miniMessage().deserialize(text);
         }
     }
+
+    public ComponentCache getComponentCache() {
+        return componentCache;
+    }
 }
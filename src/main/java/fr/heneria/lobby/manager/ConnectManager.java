@@ -0,0 +1,216 @@
+package fr.heneria.lobby.manager;
+
+import fr.heneria.lobby.HeneriaLobby;
+import fr.heneria.lobby.proxy.ServerStatus;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Queues {@code CONNECT:} transfers per target server and sends them to the proxy
+ * at {@code connect.per_tick} transfers per tick, so click storms do not flood the proxy.
+ */
+public class ConnectManager extends Manager {
+
+    private final Map<String, Deque<UUID>> queues = new LinkedHashMap<>();
+    private final Map<UUID, String> queuedPlayers = new HashMap<>();
+    // Servers with a queue, served in turn so a busy queue does not starve the others
+    private final Deque<String> rotation = new ArrayDeque<>();
+    private final Map<String, Integer> capacities = new HashMap<>();
+    // Transfers sent since the last player count of each server
+    private final Map<String, InFlight> inFlight = new HashMap<>();
+    private int perTick;
+    private long feedbackInterval;
+    private long ticks;
+    private BukkitTask task;
+
+    public ConnectManager(HeneriaLobby plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public List<Class<? extends Manager>> getDependencies() {
+        return List.of(ConfigManager.class, ServerStatusManager.class);
+    }
+
+    @Override
+    public void onEnable() {
+        this.perTick = Math.max(1, plugin.getConfig().getInt("connect.per_tick", 5));
+        this.feedbackInterval = Math.max(1, plugin.getConfig().getLong("connect.feedback_interval_ticks", 20));
+
+        ConfigurationSection capacitySection = plugin.getConfig().getConfigurationSection("connect.capacity");
+        if (capacitySection != null) {
+            for (String server : capacitySection.getKeys(false)) {
+                capacities.put(server, capacitySection.getInt(server));
+            }
+        }
+
+        this.task = Bukkit.getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+    }
+
+    @Override
+    public void onDisable() {
+        if (task != null) {
+            task.cancel();
+        }
+        queues.clear();
+        rotation.clear();
+        queuedPlayers.clear();
+        inFlight.clear();
+    }
+
+    /**
+     * Queues the player for the server. Repeated clicks keep the current position.
+     */
+    public void queue(Player player, String server) {
+        String current = queuedPlayers.get(player.getUniqueId());
+        if (server.equals(current)) {
+            sendPosition(player, server);
+            return;
+        }
+
+        String rejection = checkTarget(server);
+        if (rejection != null) {
+            player.sendMessage(Component.text(rejection, NamedTextColor.RED));
+            return;
+        }
+
+        // Switching target: leave the previous queue
+        if (current != null) {
+            remove(player.getUniqueId());
+        }
+
+        queues.computeIfAbsent(server, k -> {
+            rotation.addLast(k);
+            return new ArrayDeque<>();
+        }).addLast(player.getUniqueId());
+        queuedPlayers.put(player.getUniqueId(), server);
+        sendPosition(player, server);
+    }
+
+    public void remove(UUID uuid) {
+        String server = queuedPlayers.remove(uuid);
+        if (server == null) return;
+        Deque<UUID> queue = queues.get(server);
+        if (queue != null) {
+            queue.remove(uuid);
+        }
+    }
+
+    /**
+     * @return The reason the server cannot be joined, or null if it can.
+     */
+    private String checkTarget(String server) {
+        ServerStatusManager statusManager = plugin.getServerStatusManager();
+        // Only servers known to be down are refused: unreachable at their address, or dropped by the proxy.
+        // Without an address a stopped server still gets a 0 count from BungeeCord and is let through.
+        if (statusManager.isOffline(server)) {
+            return "Ce serveur est hors ligne.";
+        }
+        Integer capacity = capacities.get(server);
+        // The count is only polled every few seconds, the transfers sent since then are added to it
+        if (capacity != null && statusManager.getPlayerCount(server) + getInFlight(server) >= capacity) {
+            return "Ce serveur est plein.";
+        }
+        return null;
+    }
+
+    private void drain() {
+        if (queuedPlayers.isEmpty()) return;
+        ticks++;
+
+        // One transfer per server in turn until the budget is spent
+        int budget = perTick;
+        while (budget > 0 && !rotation.isEmpty()) {
+            String server = rotation.pollFirst();
+            Deque<UUID> queue = queues.get(server);
+            UUID uuid = queue.pollFirst();
+            Player player = uuid == null ? null : Bukkit.getPlayer(uuid);
+            if (uuid != null) {
+                queuedPlayers.remove(uuid);
+            }
+
+            if (player != null) {
+                String rejection = checkTarget(server);
+                if (rejection != null) {
+                    player.sendMessage(Component.text(rejection, NamedTextColor.RED));
+                } else {
+                    player.sendMessage(Component.text("Connexion à " + server + "...", NamedTextColor.GREEN));
+                    plugin.getServerStatusManager().getMessenger().connect(player, server);
+                    inFlight.computeIfAbsent(server, k -> new InFlight(System.currentTimeMillis())).count++;
+                    budget--;
+                }
+            }
+
+            if (queue.isEmpty()) {
+                queues.remove(server);
+            } else {
+                rotation.addLast(server);
+            }
+        }
+
+        if (ticks % feedbackInterval == 0) {
+            for (Map.Entry<String, Deque<UUID>> entry : queues.entrySet()) {
+                int position = 1;
+                for (UUID uuid : entry.getValue()) {
+                    Player player = Bukkit.getPlayer(uuid);
+                    if (player != null) {
+                        player.sendActionBar(positionMessage(entry.getKey(), position));
+                    }
+                    position++;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The transfers sent to the server that its last known player count does not include yet.
+     */
+    private int getInFlight(String server) {
+        InFlight sent = inFlight.get(server);
+        if (sent == null) return 0;
+        ServerStatus status = plugin.getServerStatusManager().getStatus(server);
+        if (status != null && status.updatedAt() >= sent.since) {
+            inFlight.remove(server);
+            return 0;
+        }
+        return sent.count;
+    }
+
+    private void sendPosition(Player player, String server) {
+        Deque<UUID> queue = queues.get(server);
+        if (queue == null) return;
+
+        int position = 1;
+        for (UUID uuid : queue) {
+            if (uuid.equals(player.getUniqueId())) break;
+            position++;
+        }
+        player.sendActionBar(positionMessage(server, position));
+    }
+
+    private Component positionMessage(String server, int position) {
+        return Component.text("File d'attente " + server + " : ", NamedTextColor.GRAY)
+                .append(Component.text("#" + position, NamedTextColor.YELLOW));
+    }
+
+    private static final class InFlight {
+        private final long since;
+        private int count;
+
+        private InFlight(long since) {
+            this.since = since;
+        }
+    }
+}
@@ -1,21 +1,285 @@
 package fr.heneria.lobby.manager;
 
 import fr.heneria.lobby.HeneriaLobby;
+import fr.heneria.lobby.database.Migration;
+import fr.heneria.lobby.database.SqlFunction;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.mariadb.jdbc.MariaDbPoolDataSource;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Pooled MariaDB access. Every JDBC call runs on a virtual thread, never on the server thread.
+ */
 public class DatabaseManager extends Manager {
 
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "lobby preferences", "CREATE TABLE IF NOT EXISTS lobby_preferences ("
+                    + "uuid CHAR(36) NOT NULL PRIMARY KEY, "
+                    + "players_visible BOOLEAN NOT NULL DEFAULT TRUE, "
+                    + "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP)"),
+            new Migration(2, "lobby nodes", "CREATE TABLE IF NOT EXISTS lobby_nodes ("
+                    + "node_id VARCHAR(64) NOT NULL PRIMARY KEY, "
+                    + "server_name VARCHAR(64) NOT NULL, "
+                    + "players INT NOT NULL, "
+                    + "max_players INT NOT NULL, "
+                    + "tps DOUBLE NOT NULL, "
+                    + "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP)"),
+            new Migration(3, "lobby analytics", "CREATE TABLE IF NOT EXISTS lobby_analytics ("
+                    + "id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY, "
+                    + "uuid CHAR(36) NOT NULL, "
+                    + "action VARCHAR(255) NOT NULL, "
+                    + "menu VARCHAR(64) NULL, "
+                    + "clicked_at TIMESTAMP(3) NOT NULL, "
+                    + "INDEX idx_lobby_analytics_clicked_at (clicked_at))")
+    );
+
+    private static final String MIGRATION_LOCK = "lobby_migrate";
+    private static final int MIGRATION_LOCK_TIMEOUT_SECONDS = 30;
+    private static final long MAX_RETRY_DELAY_SECONDS = 60;
+
+    private boolean enabled;
+    private DataSource dataSource;
+    private ExecutorService executor;
+    private Executor mainThreadExecutor;
+    private CompletableFuture<Void> ready = CompletableFuture.completedFuture(null);
+
     public DatabaseManager(HeneriaLobby plugin) {
         super(plugin);
     }
 
+    @Override
+    public List<Class<? extends Manager>> getDependencies() {
+        return List.of(ConfigManager.class);
+    }
+
+    @Override
+    public void load() {
+        ConfigurationSection section = plugin.getConfig().getConfigurationSection("database");
+        this.enabled = section != null && section.getBoolean("enabled", false);
+        this.mainThreadExecutor = runnable -> Bukkit.getScheduler().runTask(plugin, runnable);
+        if (!enabled) {
+            plugin.getLogger().info("Database disabled, lobby data will only be kept in memory.");
+            return;
+        }
+
+        String url = "jdbc:mariadb://" + section.getString("host", "localhost") + ":" + section.getInt("port", 3306)
+                + "/" + section.getString("name", "heneria")
+                + "?maxPoolSize=" + Math.max(1, section.getInt("pool_size", 8))
+                + "&useServerPrepStmts=true"
+                + "&cachePrepStmts=true"
+                + "&prepStmtCacheSize=" + section.getInt("statement_cache_size", 250);
+        try {
+            MariaDbPoolDataSource pool = new MariaDbPoolDataSource(url);
+            pool.setUser(section.getString("user", "root"));
+            pool.setPassword(section.getString("password", ""));
+            useDataSource(pool);
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Invalid database configuration, database disabled", e);
+            enabled = false;
+            return;
+        }
+        // The pool warms up and the schema migrates in the background, every query waits for ready()
+    }
+
     @Override
     public void onEnable() {
-        // Placeholder for MariaDB connection setup
-        // "Prépare juste la structure"
+    }
+
+    /**
+     * Starts the executor on the given data source and migrates the schema.
+     * Any {@link DataSource} works, which allows pointing the plugin at an embedded database.
+     */
+    public void useDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.enabled = true;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("HeneriaLobby-DB-", 0).factory());
+        CompletableFuture<Void> migrated = new CompletableFuture<>();
+        this.ready = migrated;
+        startMigration(migrated, 1);
+    }
+
+    /**
+     * Migrates the schema, retrying with a growing delay until it succeeds, so a database
+     * unreachable at boot does not fail every later query.
+     */
+    private void startMigration(CompletableFuture<Void> migrated, int attempt) {
+        CompletableFuture<Void> attemptFuture;
+        try {
+            attemptFuture = supplyAsync(connection -> {
+                migrate(connection);
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            migrated.completeExceptionally(e);
+            return;
+        }
+
+        attemptFuture.whenComplete((ignored, throwable) -> {
+            if (throwable == null) {
+                migrated.complete(null);
+                return;
+            }
+            if (executor.isShutdown()) {
+                migrated.completeExceptionally(throwable);
+                return;
+            }
+            long delay = Math.min(MAX_RETRY_DELAY_SECONDS, 1L << Math.min(attempt, 6));
+            plugin.getLogger().log(Level.WARNING, "Database migration failed (attempt " + attempt
+                    + "), retrying in " + delay + "s", throwable);
+            CompletableFuture.delayedExecutor(delay, TimeUnit.SECONDS).execute(() -> startMigration(migrated, attempt + 1));
+        });
     }
 
     @Override
     public void onDisable() {
-        // Close connection
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    plugin.getLogger().warning("Database queries still running on shutdown.");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "Could not close the connection pool", e);
+            }
+        }
+        enabled = false;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return A future completed once the schema is up to date.
+     */
+    public CompletableFuture<Void> ready() {
+        return ready;
+    }
+
+    /**
+     * Borrows a pooled connection. Must never be called from the server thread.
+     */
+    public Connection getConnection() throws SQLException {
+        if (!enabled) throw new SQLException("Database is disabled");
+        if (Bukkit.isPrimaryThread()) throw new IllegalStateException("JDBC call on the server thread");
+        return dataSource.getConnection();
+    }
+
+    /**
+     * Runs the function on a database thread. The future completes on that thread.
+     */
+    public <T> CompletableFuture<T> supplyAsync(SqlFunction<T> function) {
+        if (!enabled) {
+            return CompletableFuture.failedFuture(new SQLException("Database is disabled"));
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try (Connection connection = getConnection()) {
+                return function.apply(connection);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Runs the function on a database thread once the schema is ready,
+     * and completes the future on the server thread.
+     */
+    public <T> CompletableFuture<T> query(SqlFunction<T> function) {
+        return ready.thenCompose(ignored -> supplyAsync(function)).thenApplyAsync(result -> result, mainThreadExecutor);
+    }
+
+    /**
+     * Executes the statement once per row in a single JDBC batch.
+     */
+    public CompletableFuture<int[]> executeBatch(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) return CompletableFuture.completedFuture(new int[0]);
+        return ready.thenCompose(ignored -> supplyAsync(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (Object[] row : rows) {
+                    for (int i = 0; i < row.length; i++) {
+                        statement.setObject(i + 1, row[i]);
+                    }
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
+            }
+        }));
+    }
+
+    public Executor getMainThreadExecutor() {
+        return mainThreadExecutor;
+    }
+
+    private void migrate(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS lobby_schema_version ("
+                    + "version INT NOT NULL PRIMARY KEY, "
+                    + "description VARCHAR(128) NOT NULL, "
+                    + "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+        }
+
+        // Nodes booting together migrate one at a time, the version is read once the lock is held
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT GET_LOCK('" + MIGRATION_LOCK + "', "
+                     + MIGRATION_LOCK_TIMEOUT_SECONDS + ")")) {
+            if (!resultSet.next() || resultSet.getInt(1) != 1) {
+                throw new SQLException("Timed out waiting for the migration lock");
+            }
+        }
+        try {
+            applyMigrations(connection);
+        } finally {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DO RELEASE_LOCK('" + MIGRATION_LOCK + "')");
+            }
+        }
+    }
+
+    private void applyMigrations(Connection connection) throws SQLException {
+        int current = 0;
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT MAX(version) FROM lobby_schema_version")) {
+            if (resultSet.next()) {
+                current = resultSet.getInt(1);
+            }
+        }
+
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version() <= current) continue;
+
+            try (Statement statement = connection.createStatement();
+                 PreparedStatement insert = connection.prepareStatement(
+                         "INSERT IGNORE INTO lobby_schema_version (version, description) VALUES (?, ?)")) {
+                statement.execute(migration.sql());
+                insert.setInt(1, migration.version());
+                insert.setString(2, migration.description());
+                insert.executeUpdate();
+            }
+            plugin.getLogger().info("Applied database migration " + migration.version() + ": " + migration.description());
+        }
     }
 }
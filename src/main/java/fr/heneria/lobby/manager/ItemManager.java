@@ -1,17 +1,48 @@
 package fr.heneria.lobby.manager;
 
 import fr.heneria.lobby.HeneriaLobby;
+import fr.heneria.lobby.config.ConfigSnapshot;
+import fr.heneria.lobby.item.HotbarTable;
+import fr.heneria.lobby.item.ItemTemplate;
+import fr.heneria.lobby.item.LobbyKit;
+import fr.heneria.lobby.metrics.Metric;
+import org.bukkit.Bukkit;
 import org.bukkit.NamespacedKey;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.PlayerInventory;
 import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.scheduler.BukkitTask;
 import me.arcaniax.hdb.api.HeadDatabaseAPI;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 public class ItemManager extends Manager {
 
     private HeadDatabaseAPI hdbApi;
-    public static final NamespacedKey ACTION_KEY = new NamespacedKey("heneria", "action");
+    private final Map<String, ItemStack> headCache = new ConcurrentHashMap<>();
+    private final Map<String, Long> failedHeads = new ConcurrentHashMap<>();
+    private long retryIntervalMillis;
+    private final Map<UUID, HotbarTable> hotbars = new HashMap<>();
+    private final Set<UUID> kitQueue = new LinkedHashSet<>();
+    private long kitBudgetNanos;
+    private BukkitTask kitTask;
+    // Heads are fetched off the main thread too: a kit built before a head change is ignored by its generation
+    private final AtomicLong headGeneration = new AtomicLong();
+    private volatile BuiltKit kit;
+    public static final NamespacedKey ACTION_KEY = new NamespacedKey("heneria", "action_id");
     public static final NamespacedKey ITEM_ID_KEY = new NamespacedKey("heneria", "item_id");
 
     public ItemManager(HeneriaLobby plugin) {
@@ -19,35 +50,308 @@ public class ItemManager extends Manager {
     }
 
     @Override
-    public void onEnable() {
+    public List<Class<? extends Manager>> getDependencies() {
+        return List.of(ConfigManager.class);
+    }
+
+    @Override
+    public void load() {
         this.hdbApi = new HeadDatabaseAPI();
+        this.retryIntervalMillis = plugin.getConfig().getLong("hdb.retry_interval_seconds", 300) * 1000L;
+
+        // HeadDatabase is usually still loading its database here, in which case
+        // the cache is filled by the DatabaseLoadEvent instead (see PlayerJoinListener)
+        int loaded = 0;
+        Set<String> ids = plugin.getConfigManager().collectHdbIds();
+        for (String id : ids) {
+            ItemStack head;
+            try {
+                head = hdbApi.getItemHead(id);
+            } catch (Exception e) {
+                head = null;
+            }
+            if (head != null) {
+                headCache.put(id, head);
+                loaded++;
+            }
+        }
+        if (loaded > 0) {
+            plugin.getLogger().info("Preloaded " + loaded + "/" + ids.size() + " HeadDatabase heads.");
+        }
+    }
+
+    @Override
+    public void onEnable() {
+        this.kitBudgetNanos = (long) (plugin.getConfig().getDouble("kit.tick_budget_ms", 2.0) * 1_000_000L);
+        this.kitTask = Bukkit.getScheduler().runTaskTimer(plugin, this::processKitQueue, 1L, 1L);
     }
 
     @Override
     public void onDisable() {
-        // Cleanup if necessary
+        if (kitTask != null) {
+            kitTask.cancel();
+        }
+        kitQueue.clear();
+        invalidateKit();
+        headCache.clear();
+        failedHeads.clear();
+        hotbars.clear();
     }
 
+    /**
+     * Returns a copy of the cached head, fetching it from HeadDatabase on a miss.
+     * Failed ids are not retried before {@code hdb.retry_interval_seconds}.
+     */
     public ItemStack getItemFromHDB(String id) {
+        if (id == null || id.isEmpty()) return null;
+
+        long start = System.nanoTime();
+        ItemStack head = lookupHead(id);
+        plugin.getMetricsManager().record(Metric.HDB_HEAD, start);
+        return head;
+    }
+
+    private ItemStack lookupHead(String id) {
+        ItemStack cached = headCache.get(id);
+        if (cached != null) {
+            return cached.clone();
+        }
+
+        Long failedAt = failedHeads.get(id);
+        if (failedAt != null && System.currentTimeMillis() - failedAt < retryIntervalMillis) {
+            return null;
+        }
+
+        ItemStack head = fetchHead(id);
+        return head == null ? null : head.clone();
+    }
+
+    private ItemStack fetchHead(String id) {
+        ItemStack head;
         try {
-            return hdbApi.getItemHead(id);
+            head = hdbApi.getItemHead(id);
         } catch (Exception e) {
+            head = null;
+        }
+
+        if (head == null) {
+            if (failedHeads.put(id, System.currentTimeMillis()) == null) {
+                plugin.getLogger().warning("HeadDatabase head not found: " + id);
+            }
             return null;
         }
+
+        headCache.put(id, head);
+        if (failedHeads.remove(id) != null) {
+            // The kit may have been built without this head
+            invalidateKit();
+        }
+        return head;
+    }
+
+    /**
+     * Fills the head cache with the given ids. Previous failures are forgotten,
+     * as they may have been caused by HeadDatabase not being loaded yet.
+     */
+    public void warmupHeads(Collection<String> ids) {
+        failedHeads.clear();
+        headCache.clear();
+        invalidateKit();
+        int loaded = 0;
+        for (String id : ids) {
+            if (fetchHead(id) != null) loaded++;
+        }
+        plugin.getLogger().info("Cached " + loaded + "/" + ids.size() + " HeadDatabase heads.");
+    }
+
+    public void recordHotbarItem(Player player, int slot, ItemStack item, int actionId) {
+        hotbars.computeIfAbsent(player.getUniqueId(), uuid -> new HotbarTable()).set(slot, item, actionId);
+    }
+
+    /**
+     * Resolves the action of a hotbar item from the table recorded at kit time.
+     * @return The action id, or {@link ActionManager#NO_ACTION} if the slot is unknown and the PDC must be read.
+     */
+    public int getHotbarAction(Player player, int slot, ItemStack item) {
+        HotbarTable table = hotbars.get(player.getUniqueId());
+        return table == null ? ActionManager.NO_ACTION : table.get(slot, item);
+    }
+
+    public void clearHotbar(UUID uuid) {
+        hotbars.remove(uuid);
+        kitQueue.remove(uuid);
+    }
+
+    /**
+     * Gives the hotbar items of the current configuration. On the first kit of a session the
+     * inventory is cleared; afterwards only the slots whose item changed are written.
+     */
+    public void giveLobbyItems(Player player) {
+        long start = System.nanoTime();
+        LobbyKit current = getKit();
+        PlayerInventory inventory = player.getInventory();
+
+        HotbarTable table = hotbars.get(player.getUniqueId());
+        if (table == null) {
+            inventory.clear();
+            table = new HotbarTable();
+            hotbars.put(player.getUniqueId(), table);
+        }
+
+        ItemStack[] items = new ItemStack[HotbarTable.SIZE];
+        int[] actions = new int[HotbarTable.SIZE];
+        for (LobbyKit.Entry entry : current.getEntries()) {
+            int slot = entry.template().getSlot();
+            if (slot < 0 || slot >= HotbarTable.SIZE) continue;
+            items[slot] = entry.shared() != null
+                    ? entry.shared()
+                    : plugin.getConfigManager().buildItem(entry.template(), player, entry.key());
+            actions[slot] = entry.template().getActionId();
+        }
+
+        // Visibility has an on and an off variant. Default is ON, unless the player is already hiding players.
+        ItemTemplate visibility = current.getVisibility();
+        if (visibility != null && visibility.getSlot() >= 0 && visibility.getSlot() < HotbarTable.SIZE) {
+            boolean visible = !plugin.getVisibilityManager().isHidingPlayers(player);
+            items[visibility.getSlot()] = getVisibilityItem(current, player, visible);
+            actions[visibility.getSlot()] = visibility.getActionId();
+        }
+
+        for (int slot = 0; slot < HotbarTable.SIZE; slot++) {
+            updateSlot(inventory, table, slot, items[slot], actions[slot]);
+        }
+        plugin.getMetricsManager().record(Metric.LOBBY_ITEMS, start);
+    }
+
+    /**
+     * Replaces the visibility item after a toggle.
+     */
+    public void giveVisibilityItem(Player player, boolean visible) {
+        LobbyKit current = getKit();
+        ItemTemplate visibility = current.getVisibility();
+        if (visibility == null || visibility.getSlot() < 0 || visibility.getSlot() >= HotbarTable.SIZE) return;
+
+        HotbarTable table = hotbars.computeIfAbsent(player.getUniqueId(), uuid -> new HotbarTable());
+        updateSlot(player.getInventory(), table, visibility.getSlot(),
+                getVisibilityItem(current, player, visible), visibility.getActionId());
+    }
+
+    /**
+     * Gives a new kit to the players over the next ticks, within {@code kit.tick_budget_ms} per tick.
+     * Used for mass updates (reload, HeadDatabase loaded) instead of re-kitting everyone in one tick.
+     */
+    public void queueLobbyItems(Collection<? extends Player> players) {
+        for (Player player : players) {
+            kitQueue.add(player.getUniqueId());
+        }
+    }
+
+    private void processKitQueue() {
+        if (kitQueue.isEmpty()) return;
+
+        long deadline = System.nanoTime() + kitBudgetNanos;
+        Iterator<UUID> iterator = kitQueue.iterator();
+        while (iterator.hasNext()) {
+            UUID uuid = iterator.next();
+            iterator.remove();
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null) {
+                giveLobbyItems(player);
+            }
+            if (System.nanoTime() >= deadline) return;
+        }
+    }
+
+    private void updateSlot(PlayerInventory inventory, HotbarTable table, int slot, ItemStack item, int actionId) {
+        ItemStack current = inventory.getItem(slot);
+        if (item == null) {
+            if (current != null && !current.getType().isAir()) {
+                inventory.setItem(slot, null);
+            }
+            table.set(slot, null, ActionManager.NO_ACTION);
+            return;
+        }
+
+        // Same kit item (or an equal one from a previous kit) still in place: nothing to send
+        ItemStack given = table.getGiven(slot);
+        boolean unchanged = current != null && current.getType() == item.getType()
+                && given != null && (given == item || given.isSimilar(item));
+        if (!unchanged) {
+            inventory.setItem(slot, item.clone());
+        }
+        table.set(slot, item, actionId);
+    }
+
+    private ItemStack getVisibilityItem(LobbyKit current, Player player, boolean visible) {
+        ItemStack shared = current.getVisibilityItem(visible);
+        return shared != null ? shared : plugin.getConfigManager().getVisibilityItem(player, visible);
+    }
+
+    /**
+     * @return The kit of the current snapshot, built on first use after each reload.
+     */
+    private LobbyKit getKit() {
+        ConfigSnapshot snapshot = plugin.getConfigManager().getSnapshot();
+        BuiltKit current = kit;
+        long generation = headGeneration.get();
+        if (current == null || current.kit().getSnapshot() != snapshot || current.generation() != generation) {
+            // Read before building, so a head changing during the build makes this kit stale right away
+            current = new BuiltKit(buildKit(snapshot), generation);
+            kit = current;
+        }
+        return current.kit();
+    }
+
+    private void invalidateKit() {
+        headGeneration.incrementAndGet();
+        kit = null;
+    }
+
+    private LobbyKit buildKit(ConfigSnapshot snapshot) {
+        ConfigManager configManager = plugin.getConfigManager();
+        List<LobbyKit.Entry> entries = new ArrayList<>();
+        for (Map.Entry<String, ItemTemplate> entry : snapshot.getHotbarItems().entrySet()) {
+            if (entry.getKey().equals("visibility")) continue;
+
+            ItemTemplate template = entry.getValue();
+            ItemStack shared = template.isPlayerDependent() ? null : configManager.buildItem(template, null, entry.getKey());
+            // A head that failed is built per player, so it is retried after hdb.retry_interval_seconds
+            if (template.getHdbId() != null && !headCache.containsKey(template.getHdbId())) {
+                shared = null;
+            }
+            entries.add(new LobbyKit.Entry(entry.getKey(), template, shared));
+        }
+
+        ItemTemplate visibility = snapshot.getHotbarItem("visibility");
+        ItemStack visibleItem = null;
+        ItemStack hiddenItem = null;
+        ConfigurationSection section = snapshot.getConfig().getConfigurationSection("hotbar_items.visibility");
+        if (visibility != null && section != null && !visibility.isPlayerDependent()
+                && !hasPlaceholders(section.getString("name_on")) && !hasPlaceholders(section.getString("name_off"))) {
+            visibleItem = configManager.getVisibilityItem(null, true);
+            hiddenItem = configManager.getVisibilityItem(null, false);
+        }
+        return new LobbyKit(snapshot, entries, visibility, visibleItem, hiddenItem);
+    }
+
+    private boolean hasPlaceholders(String text) {
+        return text != null && plugin.getPlaceholderManager().compile(text).hasTokens();
     }
 
     public ItemStack getConfigItem(String key, Player player) {
-        return plugin.getConfigManager().getItem("hotbar_items." + key, player, key);
+        ItemTemplate template = plugin.getConfigManager().getHotbarItem(key);
+        return template == null ? null : plugin.getConfigManager().buildItem(template, player, key);
     }
 
     public int getConfigSlot(String key) {
-        return plugin.getConfigManager().getSlot("hotbar_items." + key);
+        ItemTemplate template = plugin.getConfigManager().getHotbarItem(key);
+        return template == null ? -1 : template.getSlot();
     }
 
-    public void addPersistentAction(ItemStack item, String action) {
-        if (item == null || item.getItemMeta() == null) return;
+    public void addPersistentAction(ItemStack item, int actionId) {
+        if (item == null || actionId == ActionManager.NO_ACTION || item.getItemMeta() == null) return;
         ItemMeta meta = item.getItemMeta();
-        meta.getPersistentDataContainer().set(ACTION_KEY, PersistentDataType.STRING, action);
+        meta.getPersistentDataContainer().set(ACTION_KEY, PersistentDataType.INTEGER, actionId);
         item.setItemMeta(meta);
     }
 
@@ -58,13 +362,20 @@ public class ItemManager extends Manager {
         item.setItemMeta(meta);
     }
 
-    public String getPersistentAction(ItemStack item) {
-         if (item == null || item.getItemMeta() == null) return null;
-         return item.getItemMeta().getPersistentDataContainer().get(ACTION_KEY, PersistentDataType.STRING);
+    /**
+     * @return The action id stored on the item, or {@link ActionManager#NO_ACTION}.
+     */
+    public int getPersistentAction(ItemStack item) {
+         if (item == null || item.getItemMeta() == null) return ActionManager.NO_ACTION;
+         Integer actionId = item.getItemMeta().getPersistentDataContainer().get(ACTION_KEY, PersistentDataType.INTEGER);
+         return actionId == null ? ActionManager.NO_ACTION : actionId;
     }
 
     public String getPersistentItemId(ItemStack item) {
          if (item == null || item.getItemMeta() == null) return null;
          return item.getItemMeta().getPersistentDataContainer().get(ITEM_ID_KEY, PersistentDataType.STRING);
     }
+
+    private record BuiltKit(LobbyKit kit, long generation) {
+    }
 }
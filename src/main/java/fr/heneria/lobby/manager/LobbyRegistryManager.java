@@ -0,0 +1,260 @@
+package fr.heneria.lobby.manager;
+
+import fr.heneria.lobby.HeneriaLobby;
+import fr.heneria.lobby.registry.LobbyNode;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * Registry of the lobby nodes running this plugin. Each node publishes a heartbeat (players, TPS)
+ * to the shared {@code lobby_nodes} table and reads every node back in the same round trip, on an interval.
+ * The cached nodes generate the {@code lobbies} pagination source and drive {@code QUICK_JOIN}.
+ * <p>
+ * Generated entries only substitute the server name, their values are the {@code %lobby_players_<server>%},
+ * {@code %lobby_max_players_<server>%}, {@code %lobby_tps_<server>%} and {@code %lobby_status_<server>%}
+ * placeholders. Their texts stay the same from one heartbeat to the next, only the changed values are rendered again.
+ */
+public class LobbyRegistryManager extends Manager {
+
+    public static final String SOURCE = "lobbies";
+
+    private static final String UPSERT = "INSERT INTO lobby_nodes (node_id, server_name, players, max_players, tps) "
+            + "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE server_name = VALUES(server_name), "
+            + "players = VALUES(players), max_players = VALUES(max_players), tps = VALUES(tps), "
+            + "updated_at = CURRENT_TIMESTAMP";
+    // Ages come from the database clock so the clocks of the nodes do not have to agree
+    private static final String SELECT = "SELECT node_id, server_name, players, max_players, tps, "
+            + "TIMESTAMPDIFF(SECOND, updated_at, CURRENT_TIMESTAMP) AS age FROM lobby_nodes "
+            + "WHERE updated_at >= CURRENT_TIMESTAMP - INTERVAL ? SECOND ORDER BY server_name, node_id";
+    private static final String DELETE = "DELETE FROM lobby_nodes WHERE node_id = ?";
+    private static final List<String> KEYS = List.of("players", "max_players", "tps", "status");
+
+    // Players sent by QUICK_JOIN to each server since the last heartbeat, not in its player count yet
+    private final Map<String, Integer> routed = new HashMap<>();
+    private boolean enabled;
+    private String nodeId;
+    private String server;
+    private long staleAfterSeconds;
+    private long forgetAfterSeconds;
+    private double minTps;
+    private String onlineText;
+    private String fullText;
+    private String offlineText;
+    private List<LobbyNode> nodes = List.of();
+    private Map<String, LobbyNode> nodesByServer = Map.of();
+    private volatile boolean inFlight;
+    private BukkitTask task;
+
+    public LobbyRegistryManager(HeneriaLobby plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public List<Class<? extends Manager>> getDependencies() {
+        return List.of(ConfigManager.class, DatabaseManager.class, ConnectManager.class);
+    }
+
+    @Override
+    public void onEnable() {
+        ConfigurationSection section = plugin.getConfig().getConfigurationSection("registry");
+        this.enabled = section != null && section.getBoolean("enabled", false);
+        if (!enabled) return;
+        if (!plugin.getDatabaseManager().isEnabled()) {
+            plugin.getLogger().info("Lobby registry disabled: it needs the database.");
+            this.enabled = false;
+            return;
+        }
+
+        this.server = section.getString("server", "");
+        if (server.isEmpty()) {
+            plugin.getLogger().warning("Lobby registry disabled: 'registry.server' is not set.");
+            this.enabled = false;
+            return;
+        }
+        String configuredId = section.getString("node_id", "");
+        this.nodeId = configuredId.isEmpty() ? server : configuredId;
+
+        long interval = Math.max(1, section.getLong("interval_seconds", 5));
+        this.staleAfterSeconds = Math.max(interval, section.getLong("stale_after_seconds", 15));
+        this.forgetAfterSeconds = Math.max(staleAfterSeconds, section.getLong("forget_after_seconds", 300));
+        this.minTps = section.getDouble("min_tps", 18.0);
+        this.onlineText = section.getString("status_online", "<green>En ligne");
+        this.fullText = section.getString("status_full", "<gold>Complet");
+        this.offlineText = section.getString("status_offline", "<red>Hors ligne");
+
+        for (String key : KEYS) {
+            plugin.getPlaceholderManager().registerProvider(new PlaceholderManager.SimpleProvider("lobby_" + key, true, 0,
+                    (player, node) -> getValue(nodesByServer.get(node), key), key.equals("status")));
+        }
+        this.task = Bukkit.getScheduler().runTaskTimer(plugin, this::heartbeat, 20L, interval * 20L);
+    }
+
+    @Override
+    public void onDisable() {
+        if (task != null) {
+            task.cancel();
+        }
+        if (enabled) {
+            // The database executor is drained after this manager, so the row is removed before shutdown
+            plugin.getDatabaseManager().supplyAsync(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(DELETE)) {
+                    statement.setString(1, nodeId);
+                    return statement.executeUpdate();
+                }
+            });
+        }
+        nodes = List.of();
+        nodesByServer = Map.of();
+        routed.clear();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return The nodes of the last heartbeat, including stale ones not forgotten yet.
+     */
+    public List<LobbyNode> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Sends the player to the least loaded healthy lobby, staying here when this node is one of them.
+     * Players already routed since the last heartbeat count in the load of their target.
+     */
+    public void quickJoin(Player player) {
+        LobbyNode target = nodes.stream()
+                .filter(this::isAvailable)
+                .min(Comparator.comparingDouble(this::getLoad)
+                        .thenComparing(node -> !node.nodeId().equals(nodeId)))
+                .orElse(null);
+
+        if (target == null) {
+            player.sendMessage(Component.text("Aucun lobby n'est disponible pour le moment.", NamedTextColor.RED));
+            return;
+        }
+        if (target.nodeId().equals(nodeId)) {
+            player.sendMessage(Component.text("Vous êtes déjà sur le lobby le moins chargé.", NamedTextColor.GREEN));
+            return;
+        }
+        routed.merge(target.server(), 1, Integer::sum);
+        plugin.getConnectManager().queue(player, target.server());
+    }
+
+    private boolean isAvailable(LobbyNode node) {
+        int players = node.players() + routed.getOrDefault(node.server(), 0);
+        return node.isFresh(staleAfterSeconds) && node.tps() >= minTps
+                && (node.maxPlayers() <= 0 || players < node.maxPlayers());
+    }
+
+    private double getLoad(LobbyNode node) {
+        int players = node.players() + routed.getOrDefault(node.server(), 0);
+        return node.maxPlayers() <= 0 ? players : (double) players / node.maxPlayers();
+    }
+
+    /**
+     * Publishes this node and reads all of them in one connection. Skipped while the previous one is running.
+     */
+    private void heartbeat() {
+        if (inFlight) return;
+        inFlight = true;
+
+        int players = Bukkit.getOnlinePlayers().size();
+        int maxPlayers = Bukkit.getMaxPlayers();
+        double tps = Math.min(20.0, Bukkit.getTPS()[0]);
+
+        plugin.getDatabaseManager().query(connection -> {
+            try (PreparedStatement upsert = connection.prepareStatement(UPSERT)) {
+                upsert.setString(1, nodeId);
+                upsert.setString(2, server);
+                upsert.setInt(3, players);
+                upsert.setInt(4, maxPlayers);
+                upsert.setDouble(5, tps);
+                upsert.executeUpdate();
+            }
+
+            List<LobbyNode> result = new ArrayList<>();
+            try (PreparedStatement select = connection.prepareStatement(SELECT)) {
+                select.setLong(1, forgetAfterSeconds);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        result.add(new LobbyNode(resultSet.getString(1), resultSet.getString(2), resultSet.getInt(3),
+                                resultSet.getInt(4), resultSet.getDouble(5), resultSet.getLong(6)));
+                    }
+                }
+            }
+            return result;
+        }).whenComplete((result, throwable) -> {
+            inFlight = false;
+            if (throwable != null) {
+                plugin.getLogger().log(Level.WARNING, "Could not publish the lobby heartbeat", throwable);
+                return;
+            }
+            apply(result);
+        });
+    }
+
+    /**
+     * Caches the nodes, marks the changed values and hands the servers to the menus. Runs on the server thread.
+     */
+    private void apply(List<LobbyNode> result) {
+        if (!enabled) return;
+        Map<String, LobbyNode> previous = nodesByServer;
+        Map<String, LobbyNode> byServer = new LinkedHashMap<>();
+        for (LobbyNode node : result) {
+            byServer.putIfAbsent(node.server(), node);
+        }
+        this.nodes = List.copyOf(result);
+        this.nodesByServer = byServer;
+        // The new counts include the players routed until now
+        routed.clear();
+
+        for (LobbyNode node : byServer.values()) {
+            LobbyNode old = previous.get(node.server());
+            for (String key : KEYS) {
+                if (old == null || !getValue(old, key).equals(getValue(node, key))) {
+                    plugin.getPlaceholderManager().markChanged(null, "lobby_" + key + "_" + node.server());
+                }
+            }
+        }
+
+        // Only a new or removed server changes the entries
+        List<Map<String, String>> entries = new ArrayList<>(byServer.size());
+        for (String server : byServer.keySet()) {
+            Map<String, String> variables = new HashMap<>();
+            variables.put("server", server);
+            for (String key : KEYS) {
+                variables.put(key, "%lobby_" + key + "_" + server + "%");
+            }
+            entries.add(variables);
+        }
+        plugin.getMenuManager().setSourceEntries(SOURCE, entries);
+    }
+
+    private String getValue(LobbyNode node, String key) {
+        if (node == null) return null;
+        return switch (key) {
+            case "players" -> String.valueOf(node.players());
+            case "max_players" -> String.valueOf(node.maxPlayers());
+            case "tps" -> String.format(Locale.ROOT, "%.1f", node.tps());
+            case "status" -> !node.isFresh(staleAfterSeconds) ? offlineText : node.isFull() ? fullText : onlineText;
+            default -> null;
+        };
+    }
+}
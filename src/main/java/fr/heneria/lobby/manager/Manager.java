@@ -2,6 +2,8 @@ package fr.heneria.lobby.manager;
 
 import fr.heneria.lobby.HeneriaLobby;
 
+import java.util.List;
+
 public abstract class Manager {
     protected final HeneriaLobby plugin;
 
@@ -9,6 +11,21 @@ public abstract class Manager {
         this.plugin = plugin;
     }
 
+    /**
+     * @return The managers that must be enabled before {@link #load()} of this one starts.
+     */
+    public List<Class<? extends Manager>> getDependencies() {
+        return List.of();
+    }
+
+    /**
+     * Optional startup work run off the main thread, concurrently with the other managers
+     * whose dependencies are enabled. Must not use the Bukkit API beyond thread-safe reads;
+     * {@link #onEnable()} is called on the main thread once it returns.
+     */
+    public void load() throws Exception {
+    }
+
     public abstract void onEnable();
     public abstract void onDisable();
 }
@@ -0,0 +1,127 @@
+package fr.heneria.lobby.manager;
+
+import fr.heneria.lobby.HeneriaLobby;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+
+/**
+ * Starts the managers in dependency order. The {@link Manager#load()} phases of independent managers
+ * run concurrently on virtual threads, while every {@link Manager#onEnable()} stays on the main thread.
+ */
+public class ManagerLoader {
+
+    private final HeneriaLobby plugin;
+    private final Map<Class<? extends Manager>, Manager> managers = new LinkedHashMap<>();
+    private final List<Manager> enabled = new ArrayList<>();
+
+    public ManagerLoader(HeneriaLobby plugin) {
+        this.plugin = plugin;
+    }
+
+    public <T extends Manager> T register(T manager) {
+        managers.put(manager.getClass(), manager);
+        return manager;
+    }
+
+    /**
+     * Blocks the calling (main) thread until every manager is enabled.
+     * @throws IllegalStateException If a manager fails or the dependencies cannot be resolved.
+     */
+    public void enableAll() {
+        long start = System.nanoTime();
+        for (Manager manager : managers.values()) {
+            for (Class<? extends Manager> dependency : manager.getDependencies()) {
+                if (!managers.containsKey(dependency)) {
+                    throw new IllegalStateException(name(manager) + " depends on unregistered " + dependency.getSimpleName());
+                }
+            }
+        }
+
+        Set<Class<? extends Manager>> enabledTypes = new HashSet<>();
+        Set<Manager> started = new HashSet<>();
+        Map<Manager, CompletableFuture<Long>> pending = new LinkedHashMap<>();
+
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("HeneriaLobby-Load-", 0).factory())) {
+            while (enabled.size() < managers.size()) {
+                for (Manager manager : managers.values()) {
+                    if (!started.contains(manager) && enabledTypes.containsAll(manager.getDependencies())) {
+                        started.add(manager);
+                        pending.put(manager, CompletableFuture.supplyAsync(() -> timedLoad(manager), executor));
+                    }
+                }
+                if (pending.isEmpty()) {
+                    List<String> remaining = managers.values().stream().filter(m -> !started.contains(m)).map(this::name).toList();
+                    throw new IllegalStateException("Cyclic manager dependencies: " + remaining);
+                }
+
+                CompletableFuture.anyOf(pending.values().toArray(CompletableFuture[]::new))
+                        .exceptionally(throwable -> null)
+                        .join();
+
+                Iterator<Map.Entry<Manager, CompletableFuture<Long>>> iterator = pending.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<Manager, CompletableFuture<Long>> entry = iterator.next();
+                    if (!entry.getValue().isDone()) continue;
+                    iterator.remove();
+
+                    Manager manager = entry.getKey();
+                    long loadNanos;
+                    try {
+                        loadNanos = entry.getValue().join();
+                    } catch (CompletionException e) {
+                        throw new IllegalStateException("Could not load " + name(manager), e.getCause());
+                    }
+
+                    long enableStart = System.nanoTime();
+                    manager.onEnable();
+                    long enableNanos = System.nanoTime() - enableStart;
+                    enabled.add(manager);
+                    enabledTypes.add(manager.getClass());
+                    plugin.getLogger().info(String.format("%s enabled (load %.1f ms, enable %.1f ms)",
+                            name(manager), loadNanos / 1e6, enableNanos / 1e6));
+                }
+            }
+        }
+        plugin.getLogger().info(String.format("%d managers enabled in %.1f ms", enabled.size(), (System.nanoTime() - start) / 1e6));
+    }
+
+    /**
+     * Disables the enabled managers in reverse order, so a manager is always disabled before its dependencies.
+     */
+    public void disableAll() {
+        for (int i = enabled.size() - 1; i >= 0; i--) {
+            Manager manager = enabled.get(i);
+            try {
+                manager.onDisable();
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.SEVERE, "Error while disabling " + name(manager), e);
+            }
+        }
+        enabled.clear();
+    }
+
+    private long timedLoad(Manager manager) {
+        long start = System.nanoTime();
+        try {
+            manager.load();
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private String name(Manager manager) {
+        return manager.getClass().getSimpleName();
+    }
+}
@@ -1,68 +1,623 @@
 package fr.heneria.lobby.manager;
 
 import fr.heneria.lobby.HeneriaLobby;
+import fr.heneria.lobby.config.ConfigSnapshot;
+import fr.heneria.lobby.config.ConfigValidationException;
+import fr.heneria.lobby.item.ItemTemplate;
+import fr.heneria.lobby.menu.MenuPagination;
+import fr.heneria.lobby.menu.MenuSession;
+import fr.heneria.lobby.menu.MenuTemplate;
+import fr.heneria.lobby.metrics.Metric;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.scheduler.BukkitTask;
 
-public class MenuManager extends Manager {
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+public class MenuManager extends Manager implements PlaceholderManager.ChangeListener {
+
+    private final Map<UUID, MenuSession> sessions = new HashMap<>();
+    private final Set<String> dirtyGlobal = new HashSet<>();
+    private final Map<UUID, Set<String>> dirtyPlayers = new HashMap<>();
+    // Source name -> variables of each generated entry, e.g. one map per lobby node
+    private final Map<String, List<Map<String, String>>> sourceEntries = new HashMap<>();
+    // Paginations built from the source entries, per template of the current and previous snapshots
+    private final Map<MenuTemplate, MenuPagination> generated = new IdentityHashMap<>();
+    private BukkitTask refreshTask;
+    private ConfigSnapshot initialSnapshot;
+    private ConfigValidationException initialError;
 
     public MenuManager(HeneriaLobby plugin) {
         super(plugin);
     }
 
+    @Override
+    public List<Class<? extends Manager>> getDependencies() {
+        return List.of(ConfigManager.class, ActionManager.class, PlaceholderManager.class, ItemManager.class, ProfileManager.class, ServerStatusManager.class);
+    }
+
+    @Override
+    public void load() {
+        // Compiles the menus (and hotbar items) of the first snapshot
+        try {
+            initialSnapshot = plugin.getConfigManager().loadSnapshot();
+        } catch (ConfigValidationException e) {
+            initialError = e;
+        }
+    }
+
     @Override
     public void onEnable() {
-        // Nothing specifically to enable
+        plugin.getConfigManager().publishInitial(initialSnapshot, initialError);
+        initialSnapshot = null;
+        initialError = null;
+        plugin.getPlaceholderManager().addChangeListener(this);
+        this.refreshTask = Bukkit.getScheduler().runTaskTimer(plugin, this::refreshSessions, 1L, 1L);
     }
 
     @Override
     public void onDisable() {
-        // Nothing specifically to disable
+        if (refreshTask != null) {
+            refreshTask.cancel();
+        }
+        sessions.clear();
+        generated.clear();
     }
 
-    public void openMenu(Player player, String menuId) {
-        ConfigurationSection menuSection = plugin.getConfigManager().getMenusConfig().getConfigurationSection("menus." + menuId);
-        if (menuSection == null) {
-            plugin.getLogger().warning("Menu not found: " + menuId);
-            return;
+    /**
+     * Compiles every menu of menus.yml into a {@link MenuTemplate}.
+     * Runs off the main thread during reloads, so it must only read its arguments.
+     */
+    public Map<String, MenuTemplate> compileMenus(ConfigurationSection menusSection, List<String> errors, List<String> warnings) {
+        Map<String, MenuTemplate> menus = new HashMap<>();
+        if (menusSection == null) {
+            warnings.add("menus.yml has no 'menus' section");
+            return menus;
+        }
+
+        for (String menuId : menusSection.getKeys(false)) {
+            ConfigurationSection menuSection = menusSection.getConfigurationSection(menuId);
+            if (menuSection != null) {
+                menus.put(menuId, compileMenu(menuId, menuSection, errors, warnings));
+            }
         }
+        return menus;
+    }
+
+    private MenuTemplate compileMenu(String menuId, ConfigurationSection menuSection, List<String> errors, List<String> warnings) {
+        ConfigManager configManager = plugin.getConfigManager();
 
         String titleRaw = menuSection.getString("title", "Menu");
-        Component title = plugin.getConfigManager().parseComponent(titleRaw, player);
+        Component staticTitle = plugin.getPlaceholderManager().compile(titleRaw).hasTokens() ? null : configManager.parseComponent(titleRaw, null);
         int rows = menuSection.getInt("rows", 6);
-        if (rows < 1 || rows > 6) rows = 6;
+        if (rows < 1 || rows > 6) {
+            warnings.add("Menu " + menuId + ": rows must be between 1 and 6, using 6");
+            rows = 6;
+        }
 
-        Inventory inventory = Bukkit.createInventory(null, rows * 9, title);
+        ItemStack[] contents = new ItemStack[rows * 9];
+        int[] slotActions = new int[rows * 9];
+        Arrays.fill(slotActions, ActionManager.NO_ACTION);
 
         // Frame Style
         boolean enableFrame = menuSection.getBoolean("enable_frame", false);
         if (enableFrame) {
             String frameMat = menuSection.getString("frame_material", "ORANGE_STAINED_GLASS_PANE");
-            applyFrame(inventory, rows, frameMat);
+            applyFrame(contents, rows, frameMat);
         }
 
+        MenuPagination pagination = compilePagination(menuId, menuSection, contents.length, errors, warnings);
+
         // Items
+        List<Integer> dynamicSlots = new ArrayList<>();
+        List<ItemTemplate> dynamicItems = new ArrayList<>();
+        Map<String, List<Integer>> dependencies = new HashMap<>();
         ConfigurationSection itemsSection = menuSection.getConfigurationSection("items");
         if (itemsSection != null) {
             for (String key : itemsSection.getKeys(false)) {
-                ItemStack item = plugin.getConfigManager().getMenuItem(menuId, key, player);
-                int slot = itemsSection.getInt(key + ".slot");
-                if (item != null && slot >= 0 && slot < inventory.getSize()) {
-                    inventory.setItem(slot, item);
+                ConfigurationSection itemSection = itemsSection.getConfigurationSection(key);
+                if (itemSection == null) continue;
+
+                ItemTemplate template = ItemTemplate.fromSection(itemSection, plugin.getActionManager(), plugin.getPlaceholderManager());
+                int slot = template.getSlot();
+                if (slot < 0 || slot >= contents.length) {
+                    errors.add("Menu " + menuId + ", item " + key + ": slot " + slot + " is outside the menu");
+                    continue;
+                }
+                if (pagination != null && pagination.isContentSlot(slot)) {
+                    errors.add("Menu " + menuId + ", item " + key + ": slot " + slot + " is a pagination slot");
+                    continue;
+                }
+                if (template.getAction() != null && template.getActionId() == ActionManager.NO_ACTION) {
+                    errors.add("Menu " + menuId + ", item " + key + ": invalid action '" + template.getAction() + "'");
+                }
+                if (template.getMaterial() == null && template.getHdbId() == null && !template.usePlayerHead()) {
+                    warnings.add("Menu " + menuId + ", item " + key + ": unknown material, using STONE");
+                }
+                slotActions[slot] = template.getActionId();
+
+                if (template.isPlayerDependent()) {
+                    for (String dependency : getDependencies(template)) {
+                        dependencies.computeIfAbsent(dependency, k -> new ArrayList<>()).add(dynamicItems.size());
+                    }
+                    dynamicSlots.add(slot);
+                    dynamicItems.add(template);
+                } else {
+                    contents[slot] = configManager.buildItem(template, null, null);
+                }
+            }
+        }
+
+        return new MenuTemplate(menuId, rows, titleRaw, staticTitle, contents,
+                dynamicSlots.stream().mapToInt(Integer::intValue).toArray(),
+                dynamicItems.toArray(new ItemTemplate[0]), toArrays(dependencies), slotActions, pagination);
+    }
+
+    /**
+     * Compiles the {@code pagination} and {@code entries} sections. Entries are only validated here,
+     * their pages are rendered when first shown. With a {@code source}, the entries are generated from
+     * the {@code entry} section once the source publishes its data, the static entries are shown until then.
+     */
+    private MenuPagination compilePagination(String menuId, ConfigurationSection menuSection, int size,
+                                             List<String> errors, List<String> warnings) {
+        ConfigurationSection section = menuSection.getConfigurationSection("pagination");
+        ConfigurationSection entriesSection = menuSection.getConfigurationSection("entries");
+        if (section == null) {
+            if (entriesSection != null) {
+                warnings.add("Menu " + menuId + ": 'entries' are ignored without a 'pagination' section");
+            }
+            return null;
+        }
+
+        List<?> rawSlots = section.getList("slots");
+        int[] contentSlots = parseSlots(menuId, rawSlots == null ? List.of() : rawSlots, size, errors);
+        if (contentSlots.length == 0) {
+            errors.add("Menu " + menuId + ": pagination has no slots");
+            return null;
+        }
+
+        List<ItemTemplate> entries = new ArrayList<>();
+        Map<String, List<Integer>> dependencies = new HashMap<>();
+        if (entriesSection != null) {
+            for (String key : entriesSection.getKeys(false)) {
+                ConfigurationSection entrySection = entriesSection.getConfigurationSection(key);
+                if (entrySection == null) continue;
+
+                ItemTemplate template = ItemTemplate.fromSection(entrySection, plugin.getActionManager(), plugin.getPlaceholderManager());
+                if (template.getAction() != null && template.getActionId() == ActionManager.NO_ACTION) {
+                    errors.add("Menu " + menuId + ", entry " + key + ": invalid action '" + template.getAction() + "'");
                 }
+                if (template.isPlayerDependent()) {
+                    for (String dependency : getDependencies(template)) {
+                        dependencies.computeIfAbsent(dependency, k -> new ArrayList<>()).add(entries.size());
+                    }
+                }
+                entries.add(template);
             }
         }
 
+        String source = section.getString("source");
+        ConfigurationSection entryTemplate = section.getConfigurationSection("entry");
+        if (source != null && entryTemplate == null) {
+            errors.add("Menu " + menuId + ": pagination source '" + source + "' has no 'entry' section");
+            source = null;
+        }
+
+        Set<Integer> reserved = new HashSet<>();
+        for (int slot : contentSlots) reserved.add(slot);
+        ItemTemplate previous = compileButton(menuId, section, "previous", size, reserved, errors);
+        ItemTemplate next = compileButton(menuId, section, "next", size, reserved, errors);
+        ConfigManager configManager = plugin.getConfigManager();
+
+        return new MenuPagination(size, contentSlots, entries.toArray(new ItemTemplate[0]),
+                previous == null ? -1 : previous.getSlot(),
+                previous == null ? null : configManager.buildItem(previous, null, null),
+                plugin.getActionManager().resolve("PAGE_PREV"),
+                next == null ? -1 : next.getSlot(),
+                next == null ? null : configManager.buildItem(next, null, null),
+                plugin.getActionManager().resolve("PAGE_NEXT"),
+                toArrays(dependencies), source, source == null ? null : entryTemplate);
+    }
+
+    private ItemTemplate compileButton(String menuId, ConfigurationSection section, String key, int size,
+                                       Set<Integer> reserved, List<String> errors) {
+        ConfigurationSection buttonSection = section.getConfigurationSection(key);
+        if (buttonSection == null) return null;
+
+        ItemTemplate template = ItemTemplate.fromSection(buttonSection, plugin.getActionManager(), plugin.getPlaceholderManager());
+        if (template.getSlot() < 0 || template.getSlot() >= size || reserved.contains(template.getSlot())) {
+            errors.add("Menu " + menuId + ", pagination " + key + ": invalid slot " + template.getSlot());
+            return null;
+        }
+        return template;
+    }
+
+    /**
+     * Reads slots written as numbers or ranges, e.g. {@code [10, "19-25"]}.
+     */
+    private int[] parseSlots(String menuId, List<?> values, int size, List<String> errors) {
+        Set<Integer> slots = new LinkedHashSet<>();
+        for (Object value : values) {
+            String text = String.valueOf(value).trim();
+            int separator = text.indexOf('-', 1);
+            try {
+                int from = Integer.parseInt(separator < 0 ? text : text.substring(0, separator).trim());
+                int to = separator < 0 ? from : Integer.parseInt(text.substring(separator + 1).trim());
+                if (from < 0 || to >= size || from > to) {
+                    errors.add("Menu " + menuId + ": pagination slots '" + text + "' are outside the menu");
+                    continue;
+                }
+                for (int slot = from; slot <= to; slot++) {
+                    slots.add(slot);
+                }
+            } catch (NumberFormatException e) {
+                errors.add("Menu " + menuId + ": invalid pagination slot '" + text + "'");
+            }
+        }
+        return slots.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static Map<String, int[]> toArrays(Map<String, List<Integer>> dependencies) {
+        Map<String, int[]> arrays = new HashMap<>();
+        dependencies.forEach((key, indexes) -> arrays.put(key, indexes.stream().mapToInt(Integer::intValue).toArray()));
+        return arrays;
+    }
+
+    private Set<String> getDependencies(ItemTemplate template) {
+        PlaceholderManager placeholderManager = plugin.getPlaceholderManager();
+        Set<String> keys = new HashSet<>();
+        if (template.getName() != null) {
+            keys.addAll(placeholderManager.compile(template.getName()).getTokens().keySet());
+        }
+        for (String line : template.getLore()) {
+            keys.addAll(placeholderManager.compile(line).getTokens().keySet());
+        }
+        return keys;
+    }
+
+    public MenuTemplate getTemplate(String menuId) {
+        return plugin.getConfigManager().getSnapshot().getMenu(menuId);
+    }
+
+    public void openMenu(Player player, String menuId) {
+        long start = System.nanoTime();
+        MenuTemplate template = getTemplate(menuId);
+        if (template == null) {
+            plugin.getLogger().warning("Menu not found: " + menuId);
+            return;
+        }
+
+        Component title = template.getStaticTitle();
+        if (title == null) {
+            title = plugin.getConfigManager().parseComponent(template.getRawTitle(), player);
+        }
+
+        MenuSession session = new MenuSession(player, template);
+        Inventory inventory = Bukkit.createInventory(session, template.getSize(), title);
+        session.setInventory(inventory);
+        inventory.setContents(template.getContents());
+
+        // Only player-dependent slots are rendered per open
+        int[] dynamicSlots = template.getDynamicSlots();
+        ItemTemplate[] dynamicItems = template.getDynamicItems();
+        for (int i = 0; i < dynamicSlots.length; i++) {
+            ItemStack item = plugin.getConfigManager().buildItem(dynamicItems[i], player, null);
+            if (item != null) {
+                inventory.setItem(dynamicSlots[i], item);
+            }
+        }
+
+        session.setPagination(resolvePagination(template));
+        if (session.getPagination() != null) {
+            renderPage(session, 0);
+        }
+
         player.openInventory(inventory);
+        if (isLive(session)) {
+            sessions.put(player.getUniqueId(), session);
+        } else {
+            sessions.remove(player.getUniqueId());
+        }
+        plugin.getMetricsManager().record(Metric.MENU_OPEN, start);
+    }
+
+    /**
+     * Shows another page of the open menu, if it has one in that direction.
+     * @param delta 1 for the next page, -1 for the previous one.
+     */
+    public void turnPage(Player player, int delta) {
+        if (!(player.getOpenInventory().getTopInventory().getHolder(false) instanceof MenuSession session)) return;
+        MenuPagination pagination = session.getPagination();
+        if (pagination == null) return;
+
+        int page = Math.max(0, Math.min(pagination.getPageCount() - 1, session.getPage() + delta));
+        if (page != session.getPage()) {
+            renderPage(session, page);
+        }
+    }
+
+    /**
+     * Writes the entries and buttons of the page into the session inventory. Shared items come from the
+     * page cache, player-dependent entries are built for the viewer. The neighbour pages are then
+     * prebuilt in the background so turning the page does not build on the main thread.
+     */
+    private void renderPage(MenuSession session, int page) {
+        MenuTemplate template = session.getTemplate();
+        MenuPagination pagination = session.getPagination();
+        Inventory inventory = session.getInventory();
+        ItemStack[] shared = getPage(pagination, page);
+
+        // Slots without entry on the last page show what the menu has below them (frame)
+        ItemStack[] contents = template.getContents();
+        int[] contentSlots = pagination.getContentSlots();
+        int offset = page * contentSlots.length;
+        for (int i = 0; i < contentSlots.length; i++) {
+            int index = offset + i;
+            ItemStack item = contents[contentSlots[i]];
+            if (index < pagination.getEntryCount()) {
+                item = shared[i] != null ? shared[i]
+                        : plugin.getConfigManager().buildItem(pagination.getEntry(index), session.getPlayer(), null);
+            }
+            inventory.setItem(contentSlots[i], item);
+        }
+
+        // Same for the hidden buttons
+        if (pagination.getPreviousSlot() >= 0) {
+            inventory.setItem(pagination.getPreviousSlot(),
+                    page > 0 ? pagination.getPreviousItem() : contents[pagination.getPreviousSlot()]);
+        }
+        if (pagination.getNextSlot() >= 0) {
+            inventory.setItem(pagination.getNextSlot(),
+                    page < pagination.getPageCount() - 1 ? pagination.getNextItem() : contents[pagination.getNextSlot()]);
+        }
+        session.setPage(page);
+
+        prebuildPage(pagination, page - 1);
+        prebuildPage(pagination, page + 1);
+    }
+
+    private ItemStack[] getPage(MenuPagination pagination, int page) {
+        ItemStack[] cached = pagination.getCachedPage(page);
+        return cached != null ? cached : pagination.cachePage(page, buildPage(pagination, page));
+    }
+
+    private void prebuildPage(MenuPagination pagination, int page) {
+        if (page < 0 || page >= pagination.getPageCount() || pagination.getCachedPage(page) != null) return;
+        // Item building only reads the templates and thread-safe caches, as during reloads
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            if (pagination.getCachedPage(page) == null) {
+                pagination.cachePage(page, buildPage(pagination, page));
+            }
+        });
+    }
+
+    /**
+     * @return The shared items of the page, null where an entry is player-dependent or missing.
+     */
+    private ItemStack[] buildPage(MenuPagination pagination, int page) {
+        int[] contentSlots = pagination.getContentSlots();
+        ItemStack[] items = new ItemStack[contentSlots.length];
+        int offset = page * contentSlots.length;
+        for (int i = 0; i < contentSlots.length && offset + i < pagination.getEntryCount(); i++) {
+            ItemTemplate entry = pagination.getEntry(offset + i);
+            if (!entry.isPlayerDependent()) {
+                items[i] = plugin.getConfigManager().buildItem(entry, null, null);
+            }
+        }
+        return items;
     }
 
-    private void applyFrame(Inventory inventory, int rows, String materialName) {
+    /**
+     * Replaces the data of a pagination source, each map holding the {@code {variables}} of one entry.
+     * Open menus using the source are rendered again, on the same page when it still exists.
+     */
+    public void setSourceEntries(String source, List<Map<String, String>> values) {
+        if (values.equals(sourceEntries.get(source))) return;
+        sourceEntries.put(source, List.copyOf(values));
+        generated.keySet().removeIf(template -> source.equals(template.getPagination().getSource()));
+
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (!(player.getOpenInventory().getTopInventory().getHolder(false) instanceof MenuSession session)) continue;
+            MenuPagination current = session.getPagination();
+            if (current == null || !source.equals(current.getSource())) continue;
+
+            MenuPagination pagination = resolvePagination(session.getTemplate());
+            session.setPagination(pagination);
+            renderPage(session, Math.min(session.getPage(), pagination.getPageCount() - 1));
+            if (isLive(session)) {
+                sessions.put(player.getUniqueId(), session);
+            }
+        }
+    }
+
+    /**
+     * @return True if the session shows placeholders and must be refreshed when they change.
+     */
+    private boolean isLive(MenuSession session) {
+        MenuPagination pagination = session.getPagination();
+        return session.getTemplate().hasDependencies() || (pagination != null && pagination.hasDependencies());
+    }
+
+    /**
+     * @return The pagination to show for the template: generated from its source when it has published data.
+     */
+    private MenuPagination resolvePagination(MenuTemplate template) {
+        MenuPagination pagination = template.getPagination();
+        if (pagination == null || pagination.getSource() == null) return pagination;
+        List<Map<String, String>> values = sourceEntries.get(pagination.getSource());
+        if (values == null) return pagination;
+        return generated.computeIfAbsent(template, key -> generatePagination(pagination, values));
+    }
+
+    private MenuPagination generatePagination(MenuPagination pagination, List<Map<String, String>> values) {
+        List<ItemTemplate> entries = new ArrayList<>(values.size());
+        Map<String, List<Integer>> dependencies = new HashMap<>();
+        for (Map<String, String> variables : values) {
+            ConfigurationSection section = substitute(pagination.getEntrySection(), variables);
+            ItemTemplate template = ItemTemplate.fromSection(section, plugin.getActionManager(), plugin.getPlaceholderManager());
+            if (template.isPlayerDependent()) {
+                for (String dependency : getDependencies(template)) {
+                    dependencies.computeIfAbsent(dependency, k -> new ArrayList<>()).add(entries.size());
+                }
+            }
+            entries.add(template);
+        }
+        return pagination.withEntries(entries.toArray(new ItemTemplate[0]), toArrays(dependencies));
+    }
+
+    /**
+     * Copies the section with the {@code {variables}} of its texts replaced.
+     */
+    private static ConfigurationSection substitute(ConfigurationSection section, Map<String, String> variables) {
+        YamlConfiguration copy = new YamlConfiguration();
+        for (String path : section.getKeys(true)) {
+            Object value = section.get(path);
+            if (value instanceof ConfigurationSection) continue;
+            if (value instanceof String text) {
+                value = substitute(text, variables);
+            } else if (value instanceof List<?> list) {
+                value = list.stream().map(line -> substitute(String.valueOf(line), variables)).toList();
+            }
+            copy.set(path, value);
+        }
+        return copy;
+    }
+
+    private static String substitute(String text, Map<String, String> variables) {
+        if (text.indexOf('{') < 0) return text;
+        for (Map.Entry<String, String> variable : variables.entrySet()) {
+            text = text.replace("{" + variable.getKey() + "}", variable.getValue());
+        }
+        return text;
+    }
+
+    /**
+     * Forgets the session if it is still the current one of its player.
+     */
+    public void closeSession(MenuSession session) {
+        sessions.remove(session.getPlayer().getUniqueId(), session);
+    }
+
+    public void removeSession(UUID uuid) {
+        sessions.remove(uuid);
+        dirtyPlayers.remove(uuid);
+    }
+
+    @Override
+    public void onChange(UUID uuid, String key) {
+        // Coalesced until the next tick, whatever the number of changes and viewers
+        if (uuid == null) {
+            dirtyGlobal.add(key);
+        } else if (sessions.containsKey(uuid)) {
+            dirtyPlayers.computeIfAbsent(uuid, k -> new HashSet<>()).add(key);
+        }
+    }
+
+    /**
+     * Renders the player head slots of the open menu again, once the skin of the viewer is known.
+     */
+    public void refreshPlayerHeads(Player player) {
+        if (!(player.getOpenInventory().getTopInventory().getHolder(false) instanceof MenuSession session)) return;
+
+        MenuTemplate template = session.getTemplate();
+        ItemTemplate[] dynamicItems = template.getDynamicItems();
+        for (int i = 0; i < dynamicItems.length; i++) {
+            if (!dynamicItems[i].usePlayerHead()) continue;
+            ItemStack item = plugin.getConfigManager().buildItem(dynamicItems[i], player, null);
+            session.getInventory().setItem(template.getDynamicSlots()[i], item);
+        }
+
+        MenuPagination pagination = session.getPagination();
+        if (pagination == null) return;
+        for (int slot : pagination.getContentSlots()) {
+            int index = pagination.getEntryIndex(session.getPage(), slot);
+            if (index < 0 || !pagination.getEntry(index).usePlayerHead()) continue;
+            session.getInventory().setItem(slot, plugin.getConfigManager().buildItem(pagination.getEntry(index), player, null));
+        }
+    }
+
+    private void refreshSessions() {
+        if (dirtyGlobal.isEmpty() && dirtyPlayers.isEmpty()) return;
+
+        for (MenuSession session : sessions.values()) {
+            Set<String> playerKeys = dirtyPlayers.get(session.getPlayer().getUniqueId());
+            MenuTemplate template = session.getTemplate();
+            if (session.getPagination() != null) {
+                refreshEntries(session, dirtyGlobal);
+                if (playerKeys != null) refreshEntries(session, playerKeys);
+            }
+
+            boolean[] stale = new boolean[template.getDynamicSlots().length];
+            boolean any = markStale(template, dirtyGlobal, stale);
+            if (playerKeys != null) {
+                any |= markStale(template, playerKeys, stale);
+            }
+            if (!any) continue;
+
+            // Only the affected slots are rendered again, in place
+            for (int i = 0; i < stale.length; i++) {
+                if (!stale[i]) continue;
+                ItemStack item = plugin.getConfigManager().buildItem(template.getDynamicItems()[i], session.getPlayer(), null);
+                session.getInventory().setItem(template.getDynamicSlots()[i], item);
+            }
+        }
+
+        dirtyGlobal.clear();
+        dirtyPlayers.clear();
+    }
+
+    /**
+     * Renders again the entries of the visible page that show one of the keys.
+     */
+    private void refreshEntries(MenuSession session, Set<String> keys) {
+        MenuPagination pagination = session.getPagination();
+        int[] contentSlots = pagination.getContentSlots();
+        int offset = session.getPage() * contentSlots.length;
+        for (String key : keys) {
+            int[] dependents = pagination.getDependents(key);
+            if (dependents == null) continue;
+            for (int index : dependents) {
+                if (index < offset || index >= offset + contentSlots.length) continue;
+                ItemStack item = plugin.getConfigManager().buildItem(pagination.getEntry(index), session.getPlayer(), null);
+                session.getInventory().setItem(contentSlots[index - offset], item);
+            }
+        }
+    }
+
+    private boolean markStale(MenuTemplate template, Set<String> keys, boolean[] stale) {
+        boolean any = false;
+        for (String key : keys) {
+            int[] dependents = template.getDependents(key);
+            if (dependents == null) continue;
+            for (int index : dependents) {
+                stale[index] = true;
+            }
+            any = true;
+        }
+        return any;
+    }
+
+    /**
+     * Corner frame for any number of rows: the two outer slots of each side on the first
+     * and last rows, plus the outer slots of the second and second-to-last rows.
+     */
+    private void applyFrame(ItemStack[] contents, int rows, String materialName) {
         Material mat = Material.matchMaterial(materialName);
         if (mat == null) mat = Material.ORANGE_STAINED_GLASS_PANE;
 
@@ -73,47 +628,17 @@ public class MenuManager extends Manager {
             pane.setItemMeta(meta);
         }
 
-        // The prompt asks for:
-        // Top: 0, 1, 7, 8, 9, 17
-        // Bottom: 36, 44, 45, 46, 52, 53 (assuming 6 rows = 54 slots)
-
-        // Let's verify rows. If rows < 6, this mapping might be weird.
-        // But the prompt says "Tous les menus font 54 slots (6 lignes)".
-        // So we target 6 rows specifically.
-
-        int[] topSlots = {0, 1, 7, 8, 9, 17};
-        for (int slot : topSlots) {
-            if (slot < inventory.getSize()) inventory.setItem(slot, pane);
+        int lastRow = (rows - 1) * 9;
+        for (int column : new int[]{0, 1, 7, 8}) {
+            contents[column] = pane;
+            contents[lastRow + column] = pane;
         }
-
-        // For bottom, we assume 6 rows (size 54).
-        // 36, 44 are row 5 (indices 36-44). 36 is first, 44 is last.
-        // 45, 46, 52, 53 are row 6 (indices 45-53). 45,46 are first two, 52,53 are last two.
-
-        // If rows is strictly 6:
-        if (rows == 6) {
-             int[] bottomSlots = {36, 44, 45, 46, 52, 53};
-             for (int slot : bottomSlots) {
-                 inventory.setItem(slot, pane);
-             }
-        } else {
-            // Fallback logic if rows != 6 but frame enabled?
-            // Just do corners? Or try to adapt.
-            // Prompt says "Tous les menus font 54 slots".
-            // I will implement adaptive logic just in case, or stick to the requested pattern for 6 rows.
-
-            int lastRowStart = (rows - 1) * 9;
-            int secondLastRowStart = (rows - 2) * 9;
-
-            // Row N (Bottom): 0, 1, 7, 8 relative to row start
-            inventory.setItem(lastRowStart + 0, pane);
-            inventory.setItem(lastRowStart + 1, pane);
-            inventory.setItem(lastRowStart + 7, pane);
-            inventory.setItem(lastRowStart + 8, pane);
-
-            // Row N-1: 0, 8 relative to row start
-            inventory.setItem(secondLastRowStart + 0, pane);
-            inventory.setItem(secondLastRowStart + 8, pane);
+        if (rows >= 3) {
+            int secondLastRow = (rows - 2) * 9;
+            contents[9] = pane;
+            contents[17] = pane;
+            contents[secondLastRow] = pane;
+            contents[secondLastRow + 8] = pane;
         }
     }
 }
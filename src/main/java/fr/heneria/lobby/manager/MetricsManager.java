@@ -0,0 +1,154 @@
+package fr.heneria.lobby.manager;
+
+import fr.heneria.lobby.HeneriaLobby;
+import fr.heneria.lobby.metrics.LatencyHistogram;
+import fr.heneria.lobby.metrics.Metric;
+import fr.heneria.lobby.util.ComponentCache;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+
+public class MetricsManager extends Manager {
+
+    private final Map<Metric, LatencyHistogram> histograms = new EnumMap<>(Metric.class);
+    private final long[] windowCounts = new long[Metric.values().length];
+    private volatile double[] rates = new double[Metric.values().length];
+    private volatile boolean enabled = true;
+    private long windowStart;
+    private long startTime;
+    private File file;
+    private BukkitTask task;
+
+    public MetricsManager(HeneriaLobby plugin) {
+        super(plugin);
+        // Created up front, the other managers may record while starting
+        for (Metric metric : Metric.values()) {
+            histograms.put(metric, new LatencyHistogram());
+        }
+    }
+
+    @Override
+    public List<Class<? extends Manager>> getDependencies() {
+        return List.of(ConfigManager.class);
+    }
+
+    @Override
+    public void onEnable() {
+        this.enabled = plugin.getConfig().getBoolean("metrics.enabled", true);
+        this.startTime = System.nanoTime();
+        this.windowStart = startTime;
+        if (!enabled) return;
+
+        String fileName = plugin.getConfig().getString("metrics.file", "metrics.json");
+        this.file = fileName == null || fileName.isBlank() ? null : new File(plugin.getDataFolder(), fileName);
+
+        long interval = Math.max(1, plugin.getConfig().getLong("metrics.interval_seconds", 60)) * 20L;
+        this.task = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::tick, interval, interval);
+    }
+
+    @Override
+    public void onDisable() {
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos}. Safe from any thread.
+     * @param startNanos A value of {@link System#nanoTime()} taken before the timed code.
+     */
+    public void record(Metric metric, long startNanos) {
+        if (!enabled) return;
+        histograms.get(metric).record(System.nanoTime() - startNanos);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public LatencyHistogram.Snapshot getSnapshot(Metric metric) {
+        return histograms.get(metric).snapshot();
+    }
+
+    /**
+     * @return Calls per second during the last interval.
+     */
+    public double getRate(Metric metric) {
+        return rates[metric.ordinal()];
+    }
+
+    public long getUptimeSeconds() {
+        return (System.nanoTime() - startTime) / 1_000_000_000L;
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-9, (now - windowStart) / 1e9);
+        double[] newRates = new double[windowCounts.length];
+        for (Metric metric : Metric.values()) {
+            long count = histograms.get(metric).snapshot().count();
+            newRates[metric.ordinal()] = (count - windowCounts[metric.ordinal()]) / seconds;
+            windowCounts[metric.ordinal()] = count;
+        }
+        this.rates = newRates;
+        this.windowStart = now;
+
+        if (file != null) {
+            dump();
+        }
+    }
+
+    /**
+     * Writes the metrics as JSON, through a temporary file so readers never see a partial file.
+     */
+    private void dump() {
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\"timestamp\":").append(System.currentTimeMillis())
+                .append(",\"uptime_seconds\":").append(getUptimeSeconds())
+                .append(",\"metrics\":{");
+        boolean first = true;
+        for (Metric metric : Metric.values()) {
+            LatencyHistogram.Snapshot snapshot = getSnapshot(metric);
+            if (!first) json.append(',');
+            first = false;
+            json.append('"').append(metric.getKey()).append("\":{")
+                    .append("\"count\":").append(snapshot.count())
+                    .append(",\"rate\":").append(format(getRate(metric)))
+                    .append(",\"mean_us\":").append(format(snapshot.meanMicros()))
+                    .append(",\"p50_us\":").append(format(snapshot.percentileMicros(0.50)))
+                    .append(",\"p99_us\":").append(format(snapshot.percentileMicros(0.99)))
+                    .append(",\"max_us\":").append(format(snapshot.maxMicros()))
+                    .append('}');
+        }
+        ComponentCache componentCache = plugin.getConfigManager().getComponentCache();
+        json.append("},\"component_cache\":{\"hits\":").append(componentCache.getHits())
+                .append(",\"misses\":").append(componentCache.getMisses())
+                .append("},\"throttled\":").append(plugin.getRateLimitManager().getThrottledCount())
+                .append(",\"analytics_dropped\":").append(plugin.getAnalyticsManager().getDroppedCount())
+                .append('}');
+
+        try {
+            Path target = file.toPath();
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            Files.writeString(temp, json, StandardCharsets.UTF_8);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not write " + file.getName(), e);
+        }
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
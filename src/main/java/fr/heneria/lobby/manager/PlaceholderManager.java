@@ -0,0 +1,222 @@
+package fr.heneria.lobby.manager;
+
+import fr.heneria.lobby.HeneriaLobby;
+import fr.heneria.lobby.placeholder.PlaceholderProvider;
+import fr.heneria.lobby.placeholder.PlaceholderTemplate;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles texts into {@link PlaceholderTemplate}s and resolves their placeholders
+ * through the registered providers, caching each value for the provider's TTL.
+ */
+public class PlaceholderManager extends Manager {
+
+    public static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("%([A-Za-z0-9_-]+)%");
+
+    private final Map<String, PlaceholderProvider> providers = new ConcurrentHashMap<>();
+    private final Map<String, PlaceholderTemplate> templates = new ConcurrentHashMap<>();
+    private final Map<String, CachedValue> globalValues = new HashMap<>();
+    private final Map<UUID, Map<String, CachedValue>> playerValues = new HashMap<>();
+    private final List<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+
+    public PlaceholderManager(HeneriaLobby plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public void onEnable() {
+        registerProvider(new SimpleProvider("player", false, 0, (player, argument) ->
+                argument.isEmpty() ? player.getName() : null));
+    }
+
+    @Override
+    public void onDisable() {
+        templates.clear();
+        globalValues.clear();
+        playerValues.clear();
+    }
+
+    /**
+     * Registers a provider. Templates compiled before are dropped so they bind to it.
+     */
+    public void registerProvider(PlaceholderProvider provider) {
+        providers.put(provider.getNamespace(), provider);
+        templates.clear();
+    }
+
+    /**
+     * @return The tokenized text, compiled once per distinct text.
+     */
+    public PlaceholderTemplate compile(String raw) {
+        return templates.computeIfAbsent(raw, this::tokenize);
+    }
+
+    private PlaceholderTemplate tokenize(String raw) {
+        Map<String, PlaceholderTemplate.Token> tokens = new HashMap<>();
+        List<PlaceholderTemplate.Token> tagTokens = new ArrayList<>();
+        if (raw.indexOf('%') < 0) {
+            return new PlaceholderTemplate(raw, tokens, raw, tagTokens);
+        }
+
+        StringBuilder tagged = new StringBuilder(raw.length());
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(raw);
+        while (matcher.find()) {
+            String key = matcher.group(1);
+            PlaceholderTemplate.Token token = tokens.computeIfAbsent(key, this::bind);
+            if (token == null) {
+                matcher.appendReplacement(tagged, Matcher.quoteReplacement(matcher.group()));
+                continue;
+            }
+            int index = tagTokens.indexOf(token);
+            if (index < 0) {
+                index = tagTokens.size();
+                tagTokens.add(token);
+            }
+            matcher.appendReplacement(tagged, "<ph_" + index + ">");
+        }
+        matcher.appendTail(tagged);
+        return new PlaceholderTemplate(raw, tokens, tagged.toString(), tagTokens);
+    }
+
+    private PlaceholderTemplate.Token bind(String key) {
+        // Longest namespace first: player_first_join before player
+        String namespace = key;
+        while (true) {
+            PlaceholderProvider provider = providers.get(namespace);
+            if (provider != null) {
+                String argument = namespace.length() == key.length() ? "" : key.substring(namespace.length() + 1);
+                return new PlaceholderTemplate.Token(key, provider, argument);
+            }
+            int separator = namespace.lastIndexOf('_');
+            if (separator < 0) return null;
+            namespace = namespace.substring(0, separator);
+        }
+    }
+
+    /**
+     * Resolves a token for the viewer. Main thread only.
+     * @return The value, or null if the provider has none (the placeholder is then kept).
+     */
+    public String resolve(PlaceholderTemplate.Token token, Player player) {
+        PlaceholderProvider provider = token.provider();
+        if (!provider.isGlobal() && player == null) return null;
+
+        long ttl = provider.getTtlMillis();
+        if (ttl <= 0) {
+            return provider.resolve(provider.isGlobal() ? null : player, token.argument());
+        }
+
+        Map<String, CachedValue> cache = provider.isGlobal()
+                ? globalValues
+                : playerValues.computeIfAbsent(player.getUniqueId(), uuid -> new HashMap<>());
+        long now = System.currentTimeMillis();
+        CachedValue cached = cache.get(token.key());
+        if (cached != null && cached.expiresAt > now) {
+            return cached.value;
+        }
+
+        String value = provider.resolve(provider.isGlobal() ? null : player, token.argument());
+        cache.put(token.key(), new CachedValue(value, now + ttl));
+        return value;
+    }
+
+    /**
+     * Drops a cached value so it is resolved again on next use.
+     */
+    public void invalidate(String key) {
+        globalValues.remove(key);
+        for (Map<String, CachedValue> values : playerValues.values()) {
+            values.remove(key);
+        }
+    }
+
+    /**
+     * Signals that a value changed: drops it from the cache and notifies listeners
+     * (e.g. open menus). Can be called from any thread.
+     * @param uuid The player whose value changed, or null for a global value.
+     */
+    public void markChanged(UUID uuid, String key) {
+        if (!Bukkit.isPrimaryThread()) {
+            Bukkit.getScheduler().runTask(plugin, () -> markChanged(uuid, key));
+            return;
+        }
+
+        if (uuid == null) {
+            invalidate(key);
+        } else {
+            Map<String, CachedValue> values = playerValues.get(uuid);
+            if (values != null) values.remove(key);
+        }
+        for (ChangeListener listener : changeListeners) {
+            listener.onChange(uuid, key);
+        }
+    }
+
+    public void addChangeListener(ChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    public void unload(UUID uuid) {
+        playerValues.remove(uuid);
+    }
+
+    private record CachedValue(String value, long expiresAt) {
+    }
+
+    public interface ChangeListener {
+
+        /**
+         * @param uuid The player whose value changed, or null for a global value.
+         */
+        void onChange(UUID uuid, String key);
+    }
+
+    /**
+     * Provider built from a function, for simple namespaces.
+     * @param formatted True if the values are MiniMessage texts, see {@link PlaceholderProvider#isFormatted()}.
+     */
+    public record SimpleProvider(String namespace, boolean global, long ttlMillis,
+                                 BiFunction<Player, String, String> resolver, boolean formatted) implements PlaceholderProvider {
+
+        public SimpleProvider(String namespace, boolean global, long ttlMillis, BiFunction<Player, String, String> resolver) {
+            this(namespace, global, ttlMillis, resolver, false);
+        }
+
+        @Override
+        public String getNamespace() {
+            return namespace;
+        }
+
+        @Override
+        public boolean isGlobal() {
+            return global;
+        }
+
+        @Override
+        public long getTtlMillis() {
+            return ttlMillis;
+        }
+
+        @Override
+        public String resolve(Player player, String argument) {
+            return resolver.apply(player, argument);
+        }
+
+        @Override
+        public boolean isFormatted() {
+            return formatted;
+        }
+    }
+}
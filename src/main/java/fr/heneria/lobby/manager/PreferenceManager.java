@@ -0,0 +1,142 @@
+package fr.heneria.lobby.manager;
+
+import fr.heneria.lobby.HeneriaLobby;
+import fr.heneria.lobby.player.PlayerPreferences;
+import fr.heneria.lobby.util.OfflineSweep;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Hot in-memory copy of the preferences of online players.
+ * Loaded at pre-login, written back in batches through {@link DatabaseManager}.
+ */
+public class PreferenceManager extends Manager {
+
+    private static final String SELECT = "SELECT players_visible FROM lobby_preferences WHERE uuid = ?";
+    private static final String UPSERT = "INSERT INTO lobby_preferences (uuid, players_visible) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE players_visible = VALUES(players_visible)";
+
+    private final Map<UUID, PlayerPreferences> preferences = new ConcurrentHashMap<>();
+    private final Map<UUID, PlayerPreferences> pendingWrites = new ConcurrentHashMap<>();
+    private final OfflineSweep sweep = new OfflineSweep();
+    private BukkitTask flushTask;
+    private BukkitTask sweepTask;
+
+    public PreferenceManager(HeneriaLobby plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public List<Class<? extends Manager>> getDependencies() {
+        return List.of(ConfigManager.class, DatabaseManager.class);
+    }
+
+    @Override
+    public void onEnable() {
+        if (!plugin.getDatabaseManager().isEnabled()) return;
+
+        long interval = Math.max(1, plugin.getConfig().getLong("preferences.flush_interval_seconds", 5)) * 20L;
+        this.flushTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::flush, interval, interval);
+        this.sweepTask = Bukkit.getScheduler().runTaskTimer(plugin,
+                () -> sweep.sweep(preferences.keySet(), this::unload), OfflineSweep.INTERVAL_TICKS, OfflineSweep.INTERVAL_TICKS);
+    }
+
+    @Override
+    public void onDisable() {
+        if (flushTask == null) return;
+        flushTask.cancel();
+        sweepTask.cancel();
+        sweep.clear();
+
+        // Final flush, the JDBC work still runs on a database thread
+        try {
+            flush().get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Could not save preferences on shutdown, " + pendingWrites.size() + " pending.", e);
+        }
+    }
+
+    /**
+     * Loads the preferences of a player. Blocking, called from AsyncPlayerPreLoginEvent.
+     */
+    public void load(UUID uuid) {
+        if (!plugin.getDatabaseManager().isEnabled()) return;
+
+        // Not written yet (quick reconnect), the pending value is the latest one
+        PlayerPreferences pending = pendingWrites.get(uuid);
+        if (pending != null) {
+            preferences.put(uuid, pending);
+            return;
+        }
+
+        try {
+            PlayerPreferences loaded = plugin.getDatabaseManager().ready()
+                    .thenCompose(ignored -> plugin.getDatabaseManager().supplyAsync(connection -> {
+                        try (PreparedStatement statement = connection.prepareStatement(SELECT)) {
+                            statement.setString(1, uuid.toString());
+                            try (ResultSet resultSet = statement.executeQuery()) {
+                                return resultSet.next() ? new PlayerPreferences(resultSet.getBoolean("players_visible")) : null;
+                            }
+                        }
+                    }))
+                    .get(5, TimeUnit.SECONDS);
+            if (loaded != null) {
+                preferences.put(uuid, loaded);
+            }
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Could not load preferences of " + uuid, e);
+        }
+    }
+
+    public void unload(UUID uuid) {
+        preferences.remove(uuid);
+    }
+
+    public PlayerPreferences getPreferences(UUID uuid) {
+        return preferences.getOrDefault(uuid, PlayerPreferences.DEFAULT);
+    }
+
+    public void setPlayersVisible(UUID uuid, boolean visible) {
+        PlayerPreferences updated = getPreferences(uuid).withPlayersVisible(visible);
+        preferences.put(uuid, updated);
+        // Coalesced: only the latest value of each player is written
+        if (plugin.getDatabaseManager().isEnabled()) {
+            pendingWrites.put(uuid, updated);
+        }
+    }
+
+    private CompletableFuture<int[]> flush() {
+        if (pendingWrites.isEmpty()) return CompletableFuture.completedFuture(new int[0]);
+
+        Map<UUID, PlayerPreferences> batch = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<UUID, PlayerPreferences> entry : pendingWrites.entrySet()) {
+            UUID uuid = entry.getKey();
+            PlayerPreferences value = entry.getValue();
+            // A value changed since it was read stays queued for the next flush instead of being dropped
+            if (!pendingWrites.remove(uuid, value)) continue;
+            batch.put(uuid, value);
+            rows.add(new Object[]{uuid.toString(), value.playersVisible()});
+        }
+        if (rows.isEmpty()) return CompletableFuture.completedFuture(new int[0]);
+
+        return plugin.getDatabaseManager().executeBatch(UPSERT, rows).whenComplete((result, throwable) -> {
+            if (throwable == null) return;
+            plugin.getLogger().log(Level.WARNING, "Could not save " + rows.size() + " preferences, retrying later", throwable);
+            // Newer values queued in the meantime win
+            batch.forEach(pendingWrites::putIfAbsent);
+        });
+    }
+}
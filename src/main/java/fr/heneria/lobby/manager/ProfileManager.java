@@ -0,0 +1,215 @@
+package fr.heneria.lobby.manager;
+
+import fr.heneria.lobby.HeneriaLobby;
+import fr.heneria.lobby.player.ProfileData;
+import fr.heneria.lobby.player.ProfileLoader;
+import fr.heneria.lobby.util.OfflineSweep;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Profile values shown in menus, prefetched at pre-login and refreshed in the background.
+ * Menus only read this cache and never wait for it.
+ */
+public class ProfileManager extends Manager {
+
+    private final List<ProfileLoader> loaders = new CopyOnWriteArrayList<>();
+    private final Set<String> keys = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, ProfileData> profiles = new ConcurrentHashMap<>();
+    private final Map<String, String> defaults = new HashMap<>();
+    private long ttlMillis;
+    private String loadingText;
+    private final OfflineSweep sweep = new OfflineSweep();
+    private BukkitTask refreshTask;
+    private BukkitTask sweepTask;
+
+    public ProfileManager(HeneriaLobby plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public List<Class<? extends Manager>> getDependencies() {
+        return List.of(ConfigManager.class, DatabaseManager.class, PlaceholderManager.class);
+    }
+
+    @Override
+    public void onEnable() {
+        this.ttlMillis = Math.max(1, plugin.getConfig().getLong("profile.ttl_seconds", 60)) * 1000L;
+        this.loadingText = plugin.getConfig().getString("profile.loading_text", "Chargement...");
+
+        ConfigurationSection defaultsSection = plugin.getConfig().getConfigurationSection("profile.defaults");
+        if (defaultsSection != null) {
+            for (String key : defaultsSection.getKeys(false)) {
+                defaults.put(key, defaultsSection.getString(key, ""));
+                registerKey(key);
+            }
+        }
+
+        registerLoader(new FirstJoinLoader());
+
+        ConfigurationSection queries = plugin.getConfig().getConfigurationSection("profile.queries");
+        if (queries != null && plugin.getDatabaseManager().isEnabled()) {
+            for (String key : queries.getKeys(false)) {
+                String sql = queries.getString(key);
+                if (sql != null && !sql.isBlank()) {
+                    registerLoader(new QueryLoader(key, sql));
+                }
+            }
+        }
+
+        long period = Math.max(20L, ttlMillis / 50L / 2L);
+        this.refreshTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::refreshExpired, period, period);
+        this.sweepTask = Bukkit.getScheduler().runTaskTimer(plugin,
+                () -> sweep.sweep(profiles.keySet(), this::unload), OfflineSweep.INTERVAL_TICKS, OfflineSweep.INTERVAL_TICKS);
+    }
+
+    @Override
+    public void onDisable() {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+        }
+        if (sweepTask != null) {
+            sweepTask.cancel();
+        }
+        sweep.clear();
+        profiles.clear();
+    }
+
+    public void registerLoader(ProfileLoader loader) {
+        loaders.add(loader);
+        for (String key : loader.getKeys()) {
+            registerKey(key);
+        }
+    }
+
+    private void registerKey(String key) {
+        if (!keys.add(key)) return;
+        // Values are already cached here and refreshed on their own TTL
+        plugin.getPlaceholderManager().registerProvider(new PlaceholderManager.SimpleProvider(key, false, 0,
+                (player, argument) -> argument.isEmpty() ? getValue(player.getUniqueId(), key) : null));
+    }
+
+    /**
+     * Loads the profile of a player. Blocking, called from AsyncPlayerPreLoginEvent.
+     */
+    public void prefetch(UUID uuid, String name) {
+        Map<String, String> values = new HashMap<>(defaults);
+        for (ProfileLoader loader : loaders) {
+            try {
+                values.putAll(loader.load(uuid, name));
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "Could not load profile values " + loader.getKeys() + " of " + name, e);
+            }
+        }
+        ProfileData previous = profiles.put(uuid, new ProfileData(values, System.currentTimeMillis()));
+        if (previous == null) return;
+
+        // Open menus showing a refreshed value are updated in place
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            if (!entry.getValue().equals(previous.get(entry.getKey()))) {
+                plugin.getPlaceholderManager().markChanged(uuid, entry.getKey());
+            }
+        }
+    }
+
+    public void unload(UUID uuid) {
+        profiles.remove(uuid);
+    }
+
+    /**
+     * @return The cached profile, or null if it is not loaded yet.
+     */
+    public ProfileData getProfile(UUID uuid) {
+        return profiles.get(uuid);
+    }
+
+    /**
+     * Value of a profile placeholder for the player, or the loading text if the profile is not ready.
+     */
+    public String getValue(UUID uuid, String key) {
+        ProfileData profile = profiles.get(uuid);
+        if (profile == null) return loadingText;
+        String value = profile.get(key);
+        return value == null ? loadingText : value;
+    }
+
+    private void refreshExpired() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            ProfileData profile = profiles.get(player.getUniqueId());
+            if (profile == null || profile.isExpired(ttlMillis)) {
+                prefetch(player.getUniqueId(), player.getName());
+                // The player may have quit while loading
+                if (!player.isOnline()) {
+                    profiles.remove(player.getUniqueId());
+                }
+            }
+        }
+    }
+
+    private static class FirstJoinLoader implements ProfileLoader {
+
+        @Override
+        public Set<String> getKeys() {
+            return Set.of("player_first_join");
+        }
+
+        @Override
+        public Map<String, String> load(UUID uuid, String name) {
+            OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(uuid);
+            long firstPlayed = offlinePlayer.getFirstPlayed();
+            Date date = new Date(firstPlayed > 0 ? firstPlayed : System.currentTimeMillis());
+            return Map.of("player_first_join", new SimpleDateFormat("dd/MM/yyyy").format(date));
+        }
+    }
+
+    /**
+     * Reads one value with a query from config.yml, the player UUID being its only parameter.
+     */
+    private class QueryLoader implements ProfileLoader {
+
+        private final String key;
+        private final String sql;
+
+        private QueryLoader(String key, String sql) {
+            this.key = key;
+            this.sql = sql;
+        }
+
+        @Override
+        public Set<String> getKeys() {
+            return Set.of(key);
+        }
+
+        @Override
+        public Map<String, String> load(UUID uuid, String name) throws Exception {
+            String value = plugin.getDatabaseManager().ready()
+                    .thenCompose(ignored -> plugin.getDatabaseManager().supplyAsync(connection -> {
+                        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                            statement.setString(1, uuid.toString());
+                            try (ResultSet resultSet = statement.executeQuery()) {
+                                return resultSet.next() ? resultSet.getString(1) : null;
+                            }
+                        }
+                    }))
+                    .get(5, TimeUnit.SECONDS);
+            return value == null ? Map.of() : Map.of(key, value);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package fr.heneria.lobby.manager;
+
+import fr.heneria.lobby.HeneriaLobby;
+import fr.heneria.lobby.util.TokenBucket;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-player token buckets in front of the click handlers: one for all lobby
+ * events, and one per action type with budgets from {@code rate_limits} in config.yml.
+ */
+public class RateLimitManager extends Manager {
+
+    private final Map<UUID, PlayerLimits> limits = new HashMap<>();
+    private final Map<String, Limit> actionLimits = new HashMap<>();
+    private final AtomicLong throttled = new AtomicLong();
+    private Limit eventLimit;
+    private long logThreshold;
+
+    public RateLimitManager(HeneriaLobby plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public List<Class<? extends Manager>> getDependencies() {
+        return List.of(ConfigManager.class, ActionManager.class);
+    }
+
+    @Override
+    public void onEnable() {
+        ConfigurationSection section = plugin.getConfig().getConfigurationSection("rate_limits");
+        this.eventLimit = readLimit(section == null ? null : section.getConfigurationSection("events"), new Limit(10, 5));
+        this.logThreshold = section == null ? 50 : section.getLong("log_threshold", 50);
+
+        ConfigurationSection actionsSection = section == null ? null : section.getConfigurationSection("actions");
+        if (actionsSection != null) {
+            for (String type : actionsSection.getKeys(false)) {
+                actionLimits.put(type.toUpperCase(Locale.ROOT), readLimit(actionsSection.getConfigurationSection(type), eventLimit));
+            }
+        }
+    }
+
+    @Override
+    public void onDisable() {
+        limits.clear();
+        actionLimits.clear();
+    }
+
+    private Limit readLimit(ConfigurationSection section, Limit fallback) {
+        if (section == null) return fallback;
+        return new Limit(section.getDouble("capacity", fallback.capacity()), section.getDouble("per_second", fallback.perSecond()));
+    }
+
+    /**
+     * Checked first on every click/interact, before any item is inspected.
+     * @return False if the event must be dropped.
+     */
+    public boolean tryEvent(Player player) {
+        PlayerLimits playerLimits = getLimits(player.getUniqueId());
+        if (playerLimits.events.tryConsume()) return true;
+        playerLimits.throttled++;
+        throttled.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Checked once the action is known, with the budget of its type.
+     * @return False if the action must not be executed.
+     */
+    public boolean tryAction(Player player, int actionId) {
+        String type = plugin.getActionManager().getTypeName(actionId);
+        Limit limit = type == null ? null : actionLimits.get(type);
+        if (limit == null) return true;
+
+        PlayerLimits playerLimits = getLimits(player.getUniqueId());
+        TokenBucket bucket = playerLimits.actions.computeIfAbsent(type, k -> new TokenBucket(limit.capacity(), limit.perSecond()));
+        if (bucket.tryConsume()) return true;
+        playerLimits.throttled++;
+        throttled.incrementAndGet();
+        return false;
+    }
+
+    public void unload(Player player) {
+        PlayerLimits playerLimits = limits.remove(player.getUniqueId());
+        if (playerLimits != null && logThreshold > 0 && playerLimits.throttled >= logThreshold) {
+            plugin.getLogger().info(player.getName() + " had " + playerLimits.throttled + " throttled clicks this session.");
+        }
+    }
+
+    /**
+     * @return Throttled events of the player during this session.
+     */
+    public long getThrottledCount(UUID uuid) {
+        PlayerLimits playerLimits = limits.get(uuid);
+        return playerLimits == null ? 0 : playerLimits.throttled;
+    }
+
+    /**
+     * @return Throttled events of all players since startup.
+     */
+    public long getThrottledCount() {
+        return throttled.get();
+    }
+
+    private PlayerLimits getLimits(UUID uuid) {
+        return limits.computeIfAbsent(uuid, k -> new PlayerLimits(new TokenBucket(eventLimit.capacity(), eventLimit.perSecond())));
+    }
+
+    private record Limit(double capacity, double perSecond) {
+    }
+
+    private static class PlayerLimits {
+        private final TokenBucket events;
+        private final Map<String, TokenBucket> actions = new HashMap<>();
+        private long throttled;
+
+        private PlayerLimits(TokenBucket events) {
+            this.events = events;
+        }
+    }
+}
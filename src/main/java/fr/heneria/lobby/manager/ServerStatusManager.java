@@ -0,0 +1,216 @@
+package fr.heneria.lobby.manager;
+
+import fr.heneria.lobby.HeneriaLobby;
+import fr.heneria.lobby.action.ConnectAction;
+import fr.heneria.lobby.action.LobbyAction;
+import fr.heneria.lobby.proxy.BungeeMessenger;
+import fr.heneria.lobby.proxy.ProxyMessenger;
+import fr.heneria.lobby.proxy.ServerStatus;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Player counts of the servers targeted by {@code CONNECT:} actions, polled from the proxy
+ * on a single loop. The number of requests only depends on the number of target servers.
+ * <p>
+ * BungeeCord answers 0 players for a configured server that is down, so the answers alone only
+ * detect a server unknown to the proxy. Servers given an address in {@code proxy.addresses} are
+ * also reached with a TCP connection on each poll, off the main thread, and are offline when it fails.
+ */
+public class ServerStatusManager extends Manager implements ProxyMessenger.Receiver {
+
+    private final Map<String, ServerStatus> statuses = new ConcurrentHashMap<>();
+    private final Set<String> offlineNotified = new HashSet<>();
+    private final Map<String, String> addresses = new HashMap<>();
+    // Servers whose last connection attempt failed, and those with an attempt running
+    private final Set<String> unreachable = new HashSet<>();
+    private final Set<String> pinging = ConcurrentHashMap.newKeySet();
+    private int pingTimeoutMillis;
+    private ProxyMessenger messenger;
+    private long pollIntervalTicks;
+    private long staleAfterMillis;
+    private String onlineText;
+    private String offlineText;
+    private BukkitTask pollTask;
+
+    public ServerStatusManager(HeneriaLobby plugin) {
+        super(plugin);
+        this.messenger = new BungeeMessenger(plugin);
+    }
+
+    @Override
+    public List<Class<? extends Manager>> getDependencies() {
+        return List.of(ConfigManager.class, PlaceholderManager.class, ActionManager.class);
+    }
+
+    @Override
+    public void onEnable() {
+        this.pollIntervalTicks = Math.max(20L, plugin.getConfig().getLong("proxy.poll_interval_ticks", 100));
+        // A server missing three answers in a row is considered offline
+        this.staleAfterMillis = pollIntervalTicks * 50L * 3L;
+        this.onlineText = plugin.getConfig().getString("proxy.status_online", "<green>En ligne");
+        this.offlineText = plugin.getConfig().getString("proxy.status_offline", "<red>Hors ligne");
+        this.pingTimeoutMillis = Math.max(100, plugin.getConfig().getInt("proxy.ping_timeout_ms", 1000));
+        ConfigurationSection addressSection = plugin.getConfig().getConfigurationSection("proxy.addresses");
+        if (addressSection != null) {
+            for (String server : addressSection.getKeys(false)) {
+                String address = addressSection.getString(server, "");
+                if (!address.isBlank()) {
+                    addresses.put(server, address.trim());
+                }
+            }
+        }
+
+        messenger.start(this);
+        this.pollTask = Bukkit.getScheduler().runTaskTimer(plugin, this::poll, 20L, pollIntervalTicks);
+
+        long ttl = pollIntervalTicks * 50L;
+        plugin.getPlaceholderManager().registerProvider(new PlaceholderManager.SimpleProvider("bungee", true, ttl,
+                (player, server) -> server.isEmpty() ? null : String.valueOf(getPlayerCount(server))));
+        plugin.getPlaceholderManager().registerProvider(new PlaceholderManager.SimpleProvider("status", true, ttl,
+                (player, server) -> server.isEmpty() ? null : (isOnline(server) ? onlineText : offlineText), true));
+    }
+
+    @Override
+    public void onDisable() {
+        if (pollTask != null) {
+            pollTask.cancel();
+        }
+        messenger.stop();
+        statuses.clear();
+        addresses.clear();
+        unreachable.clear();
+        offlineNotified.clear();
+    }
+
+    /**
+     * Replaces the transport, e.g. with a local fake.
+     */
+    public void setMessenger(ProxyMessenger messenger) {
+        if (pollTask != null) {
+            this.messenger.stop();
+            messenger.start(this);
+        }
+        this.messenger = messenger;
+    }
+
+    public ProxyMessenger getMessenger() {
+        return messenger;
+    }
+
+    /**
+     * @return The servers referenced by a {@code CONNECT:} action.
+     */
+    public Set<String> getTargets() {
+        Set<String> targets = new TreeSet<>();
+        for (LobbyAction action : plugin.getActionManager().getActions()) {
+            if (action instanceof ConnectAction connect) {
+                targets.add(connect.getServer());
+            }
+        }
+        return targets;
+    }
+
+    private void poll() {
+        // Servers that stopped answering switch to offline without any message
+        for (ServerStatus status : statuses.values()) {
+            if (!status.isOnline(staleAfterMillis) && offlineNotified.add(status.server())) {
+                plugin.getPlaceholderManager().markChanged(null, "status_" + status.server());
+            }
+        }
+
+        for (Map.Entry<String, String> entry : addresses.entrySet()) {
+            ping(entry.getKey(), entry.getValue());
+        }
+
+        for (String server : getTargets()) {
+            if (!messenger.requestPlayerCount(server)) {
+                // Nobody online to carry the requests
+                return;
+            }
+        }
+    }
+
+    /**
+     * Opens a TCP connection to the server on an async thread, skipped while the previous one is running.
+     */
+    private void ping(String server, String address) {
+        if (!pinging.add(server)) return;
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            boolean reachable;
+            try (Socket socket = new Socket()) {
+                int separator = address.lastIndexOf(':');
+                String host = separator < 0 ? address : address.substring(0, separator);
+                int port = separator < 0 ? 25565 : Integer.parseInt(address.substring(separator + 1));
+                socket.connect(new InetSocketAddress(host, port), pingTimeoutMillis);
+                reachable = true;
+            } catch (IOException | IllegalArgumentException e) {
+                reachable = false;
+            }
+            boolean result = reachable;
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                pinging.remove(server);
+                if (!addresses.containsKey(server)) return;
+                boolean changed = result ? unreachable.remove(server) : unreachable.add(server);
+                if (changed) {
+                    plugin.getPlaceholderManager().markChanged(null, "status_" + server);
+                }
+            });
+        });
+    }
+
+    @Override
+    public void onPlayerCount(String server, int count) {
+        boolean wasOnline = isOnline(server);
+        ServerStatus previous = statuses.put(server, new ServerStatus(server, count, System.currentTimeMillis()));
+        if (previous == null || previous.players() != count) {
+            plugin.getPlaceholderManager().markChanged(null, "bungee_" + server);
+        }
+        offlineNotified.remove(server);
+        if (!wasOnline) {
+            plugin.getPlaceholderManager().markChanged(null, "status_" + server);
+        }
+    }
+
+    /**
+     * @return The last known status, or null if the proxy never answered for this server.
+     */
+    public ServerStatus getStatus(String server) {
+        return statuses.get(server);
+    }
+
+    public int getPlayerCount(String server) {
+        ServerStatus status = statuses.get(server);
+        return status == null ? 0 : status.players();
+    }
+
+    /**
+     * @return True if the proxy answered for the server recently and, when it has an address, it can be reached.
+     */
+    public boolean isOnline(String server) {
+        ServerStatus status = statuses.get(server);
+        return status != null && status.isOnline(staleAfterMillis) && !unreachable.contains(server);
+    }
+
+    /**
+     * @return True if the server is known to be down: it cannot be reached, or the proxy stopped answering for it.
+     * False for a server the proxy never answered for and that has no address.
+     */
+    public boolean isOffline(String server) {
+        if (unreachable.contains(server)) return true;
+        ServerStatus status = statuses.get(server);
+        return status != null && !status.isOnline(staleAfterMillis);
+    }
+}
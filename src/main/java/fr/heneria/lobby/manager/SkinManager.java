@@ -0,0 +1,135 @@
+package fr.heneria.lobby.manager;
+
+import com.destroystokyo.paper.profile.PlayerProfile;
+import fr.heneria.lobby.HeneriaLobby;
+import fr.heneria.lobby.player.ProfileSource;
+import fr.heneria.lobby.util.OfflineSweep;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Textured profiles of the online players, used by {@code use_player_head} items instead of
+ * {@code setOwningPlayer}, which may look the skin up on the main thread. Heads built before the
+ * texture is known are plain heads, swapped once it is resolved.
+ */
+public class SkinManager extends Manager {
+
+    private final Map<UUID, PlayerProfile> profiles = new ConcurrentHashMap<>();
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+    // Past pre-login but not joined yet, a lookup finishing then is kept for the join
+    private final Set<UUID> loggingIn = ConcurrentHashMap.newKeySet();
+    private final OfflineSweep sweep = new OfflineSweep();
+    private BukkitTask sweepTask;
+    private ProfileSource source = (uuid, name) -> {
+        PlayerProfile profile = Bukkit.createProfile(uuid, name);
+        return profile.complete(true) && profile.hasTextures() ? profile : null;
+    };
+    private boolean fetchMissing;
+
+    public SkinManager(HeneriaLobby plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public List<Class<? extends Manager>> getDependencies() {
+        return List.of(ConfigManager.class);
+    }
+
+    @Override
+    public void onEnable() {
+        this.fetchMissing = plugin.getConfig().getBoolean("skins.fetch_missing", true);
+        this.sweepTask = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+            Set<UUID> known = new HashSet<>(profiles.keySet());
+            known.addAll(loggingIn);
+            sweep.sweep(known, this::unload);
+        }, OfflineSweep.INTERVAL_TICKS, OfflineSweep.INTERVAL_TICKS);
+    }
+
+    @Override
+    public void onDisable() {
+        if (sweepTask != null) {
+            sweepTask.cancel();
+        }
+        sweep.clear();
+        profiles.clear();
+        pending.clear();
+        loggingIn.clear();
+    }
+
+    /**
+     * Replaces the source used when the login profile has no textures.
+     */
+    public void setProfileSource(ProfileSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Keeps the textures of the login profile, or looks them up in the background.
+     * Called from the pre-login event, before the player joins.
+     */
+    public void prefetch(UUID uuid, String name, PlayerProfile loginProfile) {
+        loggingIn.add(uuid);
+        if (loginProfile != null && loginProfile.hasTextures()) {
+            profiles.put(uuid, loginProfile);
+            return;
+        }
+        if (!fetchMissing || !pending.add(uuid)) return;
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                PlayerProfile profile = source.fetch(uuid, name);
+                if (profile == null) return;
+                profiles.put(uuid, profile);
+                Bukkit.getScheduler().runTask(plugin, () -> onResolved(uuid));
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.FINE, "Could not resolve the skin of " + name, e);
+            } finally {
+                pending.remove(uuid);
+            }
+        });
+    }
+
+    /**
+     * @return The textured profile of the player, or null while it is unknown.
+     */
+    public PlayerProfile getProfile(UUID uuid) {
+        return profiles.get(uuid);
+    }
+
+    public void markJoined(UUID uuid) {
+        loggingIn.remove(uuid);
+    }
+
+    /**
+     * Forgets the player, on quit or when the login is refused after the pre-login.
+     */
+    public void unload(UUID uuid) {
+        loggingIn.remove(uuid);
+        profiles.remove(uuid);
+    }
+
+    private void onResolved(UUID uuid) {
+        Player player = Bukkit.getPlayer(uuid);
+        if (player == null) {
+            // Still logging in: the kit will be built with the texture. Otherwise the player
+            // quit or was refused before the lookup ended, and nothing else would remove it.
+            if (!loggingIn.contains(uuid)) {
+                profiles.remove(uuid);
+            }
+            return;
+        }
+
+        // Only the slots holding a different item are written again
+        plugin.getItemManager().queueLobbyItems(List.of(player));
+        plugin.getMenuManager().refreshPlayerHeads(player);
+    }
+}
@@ -0,0 +1,187 @@
+package fr.heneria.lobby.manager;
+
+import fr.heneria.lobby.HeneriaLobby;
+import fr.heneria.lobby.metrics.Metric;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps track of players hiding everyone else and applies it incrementally:
+ * joining players are hidden from existing hiders, and large show/hide batches
+ * are spread over several ticks within {@code visibility.tick_budget_ms}.
+ */
+public class VisibilityManager extends Manager {
+
+    private final Set<UUID> hidingPlayers = new HashSet<>();
+    private final Map<UUID, VisibilityJob> jobs = new LinkedHashMap<>();
+    private int batchSize;
+    private long tickBudgetNanos;
+    private BukkitTask task;
+
+    public VisibilityManager(HeneriaLobby plugin) {
+        super(plugin);
+    }
+
+    @Override
+    public List<Class<? extends Manager>> getDependencies() {
+        return List.of(ConfigManager.class, ItemManager.class, PreferenceManager.class);
+    }
+
+    @Override
+    public void onEnable() {
+        this.batchSize = Math.max(1, plugin.getConfig().getInt("visibility.batch_size", 64));
+        this.tickBudgetNanos = (long) (plugin.getConfig().getDouble("visibility.tick_budget_ms", 2.0) * 1_000_000L);
+        this.task = Bukkit.getScheduler().runTaskTimer(plugin, this::processJobs, 1L, 1L);
+    }
+
+    @Override
+    public void onDisable() {
+        if (task != null) {
+            task.cancel();
+        }
+        jobs.clear();
+        hidingPlayers.clear();
+    }
+
+    public boolean isHidingPlayers(Player player) {
+        return isHidingPlayers(player.getUniqueId());
+    }
+
+    public boolean isHidingPlayers(UUID uuid) {
+        return hidingPlayers.contains(uuid);
+    }
+
+    public void toggleVisibility(Player player) {
+        long start = System.nanoTime();
+        boolean hide = !isHidingPlayers(player);
+        setHidingPlayers(player, hide);
+
+        if (hide) {
+            player.sendMessage(Component.text("Joueurs masqués.", NamedTextColor.RED));
+        } else {
+            player.sendMessage(Component.text("Joueurs visibles.", NamedTextColor.GREEN));
+        }
+        plugin.getMetricsManager().record(Metric.VISIBILITY_TOGGLE, start);
+    }
+
+    /**
+     * Changes the state of the player and updates the hotbar item.
+     * The actual show/hide calls may be spread over the next ticks.
+     */
+    public void setHidingPlayers(Player player, boolean hide) {
+        boolean changed = hide ? hidingPlayers.add(player.getUniqueId()) : hidingPlayers.remove(player.getUniqueId());
+        if (!changed) return;
+
+        plugin.getPreferenceManager().setPlayersVisible(player.getUniqueId(), !hide);
+        schedule(player, hide);
+        updateVisibilityItem(player, !hide);
+    }
+
+    /**
+     * Hides the joining player from current hiders, and everyone from the joining
+     * player if their saved preferences say so.
+     */
+    public void handleJoin(Player player) {
+        if (!plugin.getPreferenceManager().getPreferences(player.getUniqueId()).playersVisible()) {
+            hidingPlayers.add(player.getUniqueId());
+        }
+
+        for (UUID hiderId : hidingPlayers) {
+            if (hiderId.equals(player.getUniqueId())) continue;
+            Player hider = Bukkit.getPlayer(hiderId);
+            if (hider != null) {
+                hider.hidePlayer(plugin, player);
+            }
+        }
+
+        if (hidingPlayers.contains(player.getUniqueId())) {
+            schedule(player, true);
+        }
+    }
+
+    public void handleQuit(Player player) {
+        hidingPlayers.remove(player.getUniqueId());
+        jobs.remove(player.getUniqueId());
+    }
+
+    private void schedule(Player viewer, boolean hide) {
+        List<Player> targets = new ArrayList<>(Bukkit.getOnlinePlayers());
+        if (targets.size() <= batchSize) {
+            jobs.remove(viewer.getUniqueId());
+            for (Player target : targets) {
+                apply(viewer, target, hide);
+            }
+            return;
+        }
+
+        // Replaces any pending job of this viewer, the latest state wins
+        jobs.remove(viewer.getUniqueId());
+        jobs.put(viewer.getUniqueId(), new VisibilityJob(hide, targets.iterator()));
+    }
+
+    private void processJobs() {
+        if (jobs.isEmpty()) return;
+
+        long deadline = System.nanoTime() + tickBudgetNanos;
+        Iterator<Map.Entry<UUID, VisibilityJob>> iterator = jobs.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, VisibilityJob> entry = iterator.next();
+            Player viewer = Bukkit.getPlayer(entry.getKey());
+            VisibilityJob job = entry.getValue();
+            if (viewer == null) {
+                iterator.remove();
+                continue;
+            }
+
+            int processed = 0;
+            while (job.targets.hasNext()) {
+                Player target = job.targets.next();
+                if (target.isOnline()) {
+                    apply(viewer, target, job.hide);
+                }
+                // Checking the clock every few calls keeps the overhead low
+                if (++processed % 16 == 0 && System.nanoTime() >= deadline) {
+                    return;
+                }
+            }
+            iterator.remove();
+
+            if (System.nanoTime() >= deadline) return;
+        }
+    }
+
+    private void apply(Player viewer, Player target, boolean hide) {
+        if (viewer == target) return;
+        if (hide) {
+            viewer.hidePlayer(plugin, target);
+        } else {
+            viewer.showPlayer(plugin, target);
+        }
+    }
+
+    private void updateVisibilityItem(Player player, boolean isVisible) {
+        plugin.getItemManager().giveVisibilityItem(player, isVisible);
+    }
+
+    private static class VisibilityJob {
+        private final boolean hide;
+        private final Iterator<Player> targets;
+
+        private VisibilityJob(boolean hide, Iterator<Player> targets) {
+            this.hide = hide;
+            this.targets = targets;
+        }
+    }
+}
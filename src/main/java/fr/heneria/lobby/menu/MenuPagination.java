@@ -0,0 +1,165 @@
+package fr.heneria.lobby.menu;
+
+import fr.heneria.lobby.item.ItemTemplate;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The paginated part of a menu: the {@code entries} of menus.yml laid out over the content slots,
+ * page after page, plus the previous/next buttons.
+ * <p>
+ * Pages are rendered on demand. Items that look the same for every viewer are cached per page
+ * and shared, player-dependent entries are built for each viewer.
+ */
+public class MenuPagination {
+
+    private final int[] contentSlots;
+    private final int[] slotIndexes;
+    private final ItemTemplate[] entries;
+    private final int previousSlot;
+    private final int nextSlot;
+    private final ItemStack previousItem;
+    private final ItemStack nextItem;
+    private final int previousAction;
+    private final int nextAction;
+    private final Map<String, int[]> dependencies;
+    private final String source;
+    private final ConfigurationSection entrySection;
+    private final AtomicReferenceArray<ItemStack[]> pages;
+
+    /**
+     * @param menuSize Size of the menu inventory.
+     * @param previousSlot Slot of the previous button, -1 if there is none.
+     * @param nextSlot Slot of the next button, -1 if there is none.
+     * @param dependencies Placeholder key -> indexes in {@code entries} of the entries using it.
+     * @param source Name of the data generating the entries (e.g. {@code lobbies}), or null if they are static.
+     * @param entrySection Item section used for each generated entry, null without source.
+     */
+    public MenuPagination(int menuSize, int[] contentSlots, ItemTemplate[] entries,
+                          int previousSlot, ItemStack previousItem, int previousAction,
+                          int nextSlot, ItemStack nextItem, int nextAction,
+                          Map<String, int[]> dependencies, String source, ConfigurationSection entrySection) {
+        this.contentSlots = contentSlots;
+        this.entries = entries;
+        this.previousSlot = previousSlot;
+        this.previousItem = previousItem;
+        this.previousAction = previousAction;
+        this.nextSlot = nextSlot;
+        this.nextItem = nextItem;
+        this.nextAction = nextAction;
+        this.dependencies = Map.copyOf(dependencies);
+        this.source = source;
+        this.entrySection = entrySection;
+
+        this.slotIndexes = new int[menuSize];
+        Arrays.fill(slotIndexes, -1);
+        for (int i = 0; i < contentSlots.length; i++) {
+            slotIndexes[contentSlots[i]] = i;
+        }
+        this.pages = new AtomicReferenceArray<>(getPageCount());
+    }
+
+    /**
+     * @return The same layout and buttons with other entries, with an empty page cache.
+     */
+    public MenuPagination withEntries(ItemTemplate[] entries, Map<String, int[]> dependencies) {
+        return new MenuPagination(slotIndexes.length, contentSlots, entries,
+                previousSlot, previousItem, previousAction, nextSlot, nextItem, nextAction,
+                dependencies, source, entrySection);
+    }
+
+    /**
+     * @return The name of the data generating the entries, or null if they come from menus.yml.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    public ConfigurationSection getEntrySection() {
+        return entrySection;
+    }
+
+    public int getPageCount() {
+        return Math.max(1, (entries.length + contentSlots.length - 1) / contentSlots.length);
+    }
+
+    public int[] getContentSlots() {
+        return contentSlots;
+    }
+
+    public boolean isContentSlot(int slot) {
+        return slot >= 0 && slot < slotIndexes.length && slotIndexes[slot] >= 0;
+    }
+
+    /**
+     * @return The index in the entries of the item shown in the slot, or -1 if the slot shows no entry.
+     */
+    public int getEntryIndex(int page, int slot) {
+        if (!isContentSlot(slot)) return -1;
+        int index = page * contentSlots.length + slotIndexes[slot];
+        return index < entries.length ? index : -1;
+    }
+
+    public ItemTemplate getEntry(int index) {
+        return entries[index];
+    }
+
+    public int getEntryCount() {
+        return entries.length;
+    }
+
+    public int getPreviousSlot() {
+        return previousSlot;
+    }
+
+    public int getNextSlot() {
+        return nextSlot;
+    }
+
+    public ItemStack getPreviousItem() {
+        return previousItem;
+    }
+
+    public ItemStack getNextItem() {
+        return nextItem;
+    }
+
+    public int getPreviousAction() {
+        return previousAction;
+    }
+
+    public int getNextAction() {
+        return nextAction;
+    }
+
+    /**
+     * @return Indexes of the entries showing this placeholder, or null if none does.
+     */
+    public int[] getDependents(String key) {
+        return dependencies.get(key);
+    }
+
+    public boolean hasDependencies() {
+        return !dependencies.isEmpty();
+    }
+
+    /**
+     * @return The shared items of the page by content slot index (null for player-dependent
+     * or missing entries), or null if the page was not rendered yet. Must not be modified.
+     */
+    public ItemStack[] getCachedPage(int page) {
+        return pages.get(page);
+    }
+
+    /**
+     * Stores a rendered page, unless another thread stored it first.
+     * @return The page kept in the cache.
+     */
+    public ItemStack[] cachePage(int page, ItemStack[] items) {
+        return pages.compareAndSet(page, null, items) ? items : pages.get(page);
+    }
+}
@@ -0,0 +1,90 @@
+package fr.heneria.lobby.menu;
+
+import fr.heneria.lobby.manager.ActionManager;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+
+/**
+ * A menu currently open by a player. Holder of the menu inventory, so a click is routed
+ * with an instanceof check and a slot lookup instead of reading the item PDC.
+ */
+public class MenuSession implements InventoryHolder {
+
+    private final Player player;
+    private final MenuTemplate template;
+    private Inventory inventory;
+    private MenuPagination pagination;
+    private int page;
+
+    public MenuSession(Player player, MenuTemplate template) {
+        this.player = player;
+        this.template = template;
+        this.pagination = template.getPagination();
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public String getMenuId() {
+        return template.getId();
+    }
+
+    public MenuTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * @return The action of the slot, or {@link ActionManager#NO_ACTION}.
+     */
+    public int getAction(int slot) {
+        if (pagination != null) {
+            if (pagination.isContentSlot(slot)) {
+                int index = pagination.getEntryIndex(page, slot);
+                return index < 0 ? ActionManager.NO_ACTION : pagination.getEntry(index).getActionId();
+            }
+            // Hidden buttons on the first and last pages
+            if (slot == pagination.getPreviousSlot()) {
+                return page > 0 ? pagination.getPreviousAction() : ActionManager.NO_ACTION;
+            }
+            if (slot == pagination.getNextSlot()) {
+                return page < pagination.getPageCount() - 1 ? pagination.getNextAction() : ActionManager.NO_ACTION;
+            }
+        }
+
+        int[] actions = template.getSlotActions();
+        return slot >= 0 && slot < actions.length ? actions[slot] : ActionManager.NO_ACTION;
+    }
+
+    /**
+     * @return The entries shown, which may be generated rather than the ones of the template. Null without pagination.
+     */
+    public MenuPagination getPagination() {
+        return pagination;
+    }
+
+    public void setPagination(MenuPagination pagination) {
+        this.pagination = pagination;
+    }
+
+    /**
+     * @return The page shown, 0 for the first one and for menus without pagination.
+     */
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public void setInventory(Inventory inventory) {
+        this.inventory = inventory;
+    }
+
+    @Override
+    public Inventory getInventory() {
+        return inventory;
+    }
+}
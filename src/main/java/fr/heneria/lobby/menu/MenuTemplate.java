@@ -0,0 +1,108 @@
+package fr.heneria.lobby.menu;
+
+import fr.heneria.lobby.item.ItemTemplate;
+import net.kyori.adventure.text.Component;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Map;
+
+/**
+ * A menu compiled from menus.yml. Static items and frame panes are prebuilt,
+ * only player-dependent slots are rendered again on each open.
+ */
+public class MenuTemplate {
+
+    private final String id;
+    private final int rows;
+    private final String rawTitle;
+    private final Component staticTitle;
+    private final ItemStack[] contents;
+    private final int[] dynamicSlots;
+    private final ItemTemplate[] dynamicItems;
+    private final Map<String, int[]> dependencies;
+    private final int[] slotActions;
+    private final MenuPagination pagination;
+
+    /**
+     * @param dependencies Placeholder key -> indexes in {@code dynamicSlots} of the items using it.
+     * @param pagination The paginated entries, or null for a single page menu.
+     */
+    public MenuTemplate(String id, int rows, String rawTitle, Component staticTitle,
+                        ItemStack[] contents, int[] dynamicSlots, ItemTemplate[] dynamicItems,
+                        Map<String, int[]> dependencies, int[] slotActions, MenuPagination pagination) {
+        this.id = id;
+        this.rows = rows;
+        this.rawTitle = rawTitle;
+        this.staticTitle = staticTitle;
+        this.contents = contents;
+        this.dynamicSlots = dynamicSlots;
+        this.dynamicItems = dynamicItems;
+        this.dependencies = Map.copyOf(dependencies);
+        this.slotActions = slotActions;
+        this.pagination = pagination;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getSize() {
+        return rows * 9;
+    }
+
+    public String getRawTitle() {
+        return rawTitle;
+    }
+
+    /**
+     * @return The prebuilt title, or null if the title contains placeholders.
+     */
+    public Component getStaticTitle() {
+        return staticTitle;
+    }
+
+    /**
+     * Prebuilt contents (frame + static items). Must not be modified:
+     * {@link org.bukkit.inventory.Inventory#setContents} copies each stack.
+     */
+    public ItemStack[] getContents() {
+        return contents;
+    }
+
+    public int[] getDynamicSlots() {
+        return dynamicSlots;
+    }
+
+    public ItemTemplate[] getDynamicItems() {
+        return dynamicItems;
+    }
+
+    /**
+     * @return Indexes of the dynamic items showing this placeholder, or null if none does.
+     */
+    public int[] getDependents(String key) {
+        return dependencies.get(key);
+    }
+
+    /**
+     * @return Slot -> action id, {@link fr.heneria.lobby.manager.ActionManager#NO_ACTION} for slots without action.
+     */
+    public int[] getSlotActions() {
+        return slotActions;
+    }
+
+    /**
+     * @return The paginated entries, or null if the menu has none.
+     */
+    public MenuPagination getPagination() {
+        return pagination;
+    }
+
+    public boolean hasDependencies() {
+        return !dependencies.isEmpty() || (pagination != null && pagination.hasDependencies());
+    }
+}
@@ -0,0 +1,78 @@
+package fr.heneria.lobby.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with fixed buckets, so recording never allocates.
+ * Percentiles are approximated by the upper bound of their bucket.
+ */
+public class LatencyHistogram {
+
+    // Upper bounds in microseconds, the last bucket holds everything above
+    private static final long[] BOUNDS_MICROS = {
+            1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 20_000, 50_000, 100_000
+    };
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS_MICROS.length + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        long micros = nanos / 1000L;
+        int bucket = 0;
+        while (bucket < BOUNDS_MICROS.length && micros >= BOUNDS_MICROS[bucket]) {
+            bucket++;
+        }
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(nanos);
+        if (nanos > maxNanos.get()) {
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /**
+     * @return A copy of the current values. Concurrent records may be partially included.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[buckets.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = buckets.get(i);
+        }
+        return new Snapshot(count.sum(), totalNanos.sum(), maxNanos.get(), copy);
+    }
+
+    public record Snapshot(long count, long totalNanos, long maxNanos, long[] buckets) {
+
+        public double meanMicros() {
+            return count == 0 ? 0 : totalNanos / 1000.0 / count;
+        }
+
+        public double maxMicros() {
+            return maxNanos / 1000.0;
+        }
+
+        /**
+         * @param quantile Between 0 and 1.
+         * @return The upper bound of the bucket containing the quantile, in microseconds.
+         */
+        public double percentileMicros(double quantile) {
+            long total = 0;
+            for (long bucket : buckets) total += bucket;
+            if (total == 0) return 0;
+
+            long target = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= target) {
+                    return i < BOUNDS_MICROS.length ? BOUNDS_MICROS[i] : maxMicros();
+                }
+            }
+            return maxMicros();
+        }
+    }
+}
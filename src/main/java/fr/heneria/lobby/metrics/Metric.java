@@ -0,0 +1,25 @@
+package fr.heneria.lobby.metrics;
+
+/**
+ * Timed hot paths. Each one has its own {@link LatencyHistogram}.
+ */
+public enum Metric {
+    LOBBY_ITEMS("lobby_items"),
+    MENU_OPEN("menu_open"),
+    ACTION("action"),
+    VISIBILITY_TOGGLE("visibility_toggle"),
+    HDB_HEAD("hdb_head");
+
+    private final String key;
+
+    Metric(String key) {
+        this.key = key;
+    }
+
+    /**
+     * @return The name used in the metrics file.
+     */
+    public String getKey() {
+        return key;
+    }
+}
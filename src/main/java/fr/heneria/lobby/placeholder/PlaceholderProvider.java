@@ -0,0 +1,40 @@
+package fr.heneria.lobby.placeholder;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Resolves the placeholders of one namespace, e.g. {@code bungee} for {@code %bungee_bedwars%}.
+ * Register providers with {@link fr.heneria.lobby.manager.PlaceholderManager#registerProvider(PlaceholderProvider)}.
+ */
+public interface PlaceholderProvider {
+
+    /**
+     * @return The namespace, matched against the start of the placeholder (the longest registered namespace wins).
+     */
+    String getNamespace();
+
+    /**
+     * @return True if the value is the same for every viewer, it is then resolved once per TTL for everyone.
+     */
+    boolean isGlobal();
+
+    /**
+     * @return How long a resolved value stays valid, 0 to resolve on every use.
+     */
+    long getTtlMillis();
+
+    /**
+     * @param player The viewer, null for global providers.
+     * @param argument The part after {@code namespace_}, empty if the placeholder is the namespace itself.
+     * @return The value, or null to leave the placeholder as is.
+     */
+    String resolve(Player player, String argument);
+
+    /**
+     * @return True if the values are MiniMessage texts (e.g. coloured statuses). Other values are inserted
+     * as plain text, so a value coming from a player or the database cannot inject formatting.
+     */
+    default boolean isFormatted() {
+        return false;
+    }
+}
@@ -0,0 +1,66 @@
+package fr.heneria.lobby.placeholder;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A text tokenized once: the placeholders it contains, bound to their provider.
+ * Unknown placeholders are not bound and stay as typed.
+ * <p>
+ * The bound placeholders are also rewritten as {@code <ph_N>} MiniMessage tags, so their values are
+ * inserted through tag resolvers and styled like the text around them (gradients included).
+ */
+public class PlaceholderTemplate {
+
+    private final String raw;
+    private final Map<String, Token> tokens;
+    private final String tagged;
+    private final List<Token> tagTokens;
+    private final boolean playerDependent;
+
+    /**
+     * @param tagged The text with each bound placeholder replaced by {@code <ph_N>}.
+     * @param tagTokens The token of each tag, N being the index.
+     */
+    public PlaceholderTemplate(String raw, Map<String, Token> tokens, String tagged, List<Token> tagTokens) {
+        this.raw = raw;
+        this.tokens = Map.copyOf(tokens);
+        this.tagged = tagged;
+        this.tagTokens = List.copyOf(tagTokens);
+        this.playerDependent = this.tokens.values().stream().anyMatch(token -> !token.provider().isGlobal());
+    }
+
+    public String getRaw() {
+        return raw;
+    }
+
+    public boolean hasTokens() {
+        return !tokens.isEmpty();
+    }
+
+    /**
+     * @param key The placeholder without the surrounding '%'.
+     */
+    public Token getToken(String key) {
+        return tokens.get(key);
+    }
+
+    public Map<String, Token> getTokens() {
+        return tokens;
+    }
+
+    public String getTagged() {
+        return tagged;
+    }
+
+    public List<Token> getTagTokens() {
+        return tagTokens;
+    }
+
+    public boolean isPlayerDependent() {
+        return playerDependent;
+    }
+
+    public record Token(String key, PlaceholderProvider provider, String argument) {
+    }
+}
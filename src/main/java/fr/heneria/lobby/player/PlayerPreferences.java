@@ -0,0 +1,14 @@
+package fr.heneria.lobby.player;
+
+/**
+ * Lobby preferences of a player. Immutable, a change produces a new instance
+ * so pending writes can be queued without copying.
+ */
+public record PlayerPreferences(boolean playersVisible) {
+
+    public static final PlayerPreferences DEFAULT = new PlayerPreferences(true);
+
+    public PlayerPreferences withPlayersVisible(boolean visible) {
+        return new PlayerPreferences(visible);
+    }
+}
@@ -0,0 +1,21 @@
+package fr.heneria.lobby.player;
+
+import java.util.Map;
+
+/**
+ * Snapshot of the profile values of a player (coins, first join...), keyed by placeholder name.
+ */
+public record ProfileData(Map<String, String> values, long loadedAt) {
+
+    public ProfileData {
+        values = Map.copyOf(values);
+    }
+
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    public boolean isExpired(long ttlMillis) {
+        return System.currentTimeMillis() - loadedAt > ttlMillis;
+    }
+}
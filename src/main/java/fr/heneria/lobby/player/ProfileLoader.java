@@ -0,0 +1,19 @@
+package fr.heneria.lobby.player;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Loads some profile values of a player. Always called off the main thread,
+ * so implementations may block on the database or other services.
+ */
+public interface ProfileLoader {
+
+    /**
+     * @return The placeholder names this loader fills, e.g. {@code heneria_coins}.
+     */
+    Set<String> getKeys();
+
+    Map<String, String> load(UUID uuid, String name) throws Exception;
+}
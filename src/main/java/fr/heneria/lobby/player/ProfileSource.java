@@ -0,0 +1,17 @@
+package fr.heneria.lobby.player;
+
+import com.destroystokyo.paper.profile.PlayerProfile;
+
+import java.util.UUID;
+
+/**
+ * Provides the textured profile used by player heads. Always called off the main thread,
+ * so implementations may block on Mojang or another skin service.
+ */
+public interface ProfileSource {
+
+    /**
+     * @return A profile with its textures, or null if the skin is unknown.
+     */
+    PlayerProfile fetch(UUID uuid, String name) throws Exception;
+}
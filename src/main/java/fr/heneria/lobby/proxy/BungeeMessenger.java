@@ -0,0 +1,72 @@
+package fr.heneria.lobby.proxy;
+
+import com.google.common.collect.Iterables;
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import fr.heneria.lobby.HeneriaLobby;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.messaging.PluginMessageListener;
+
+/**
+ * {@link ProxyMessenger} over the "BungeeCord" plugin-messaging channel.
+ * Plugin messages need a player connection, any online player carries the requests.
+ */
+public class BungeeMessenger implements ProxyMessenger, PluginMessageListener {
+
+    private static final String CHANNEL = "BungeeCord";
+
+    private final HeneriaLobby plugin;
+    private Receiver receiver;
+
+    public BungeeMessenger(HeneriaLobby plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void start(Receiver receiver) {
+        this.receiver = receiver;
+        plugin.getServer().getMessenger().registerOutgoingPluginChannel(plugin, CHANNEL);
+        plugin.getServer().getMessenger().registerIncomingPluginChannel(plugin, CHANNEL, this);
+    }
+
+    @Override
+    public void stop() {
+        plugin.getServer().getMessenger().unregisterOutgoingPluginChannel(plugin, CHANNEL);
+        plugin.getServer().getMessenger().unregisterIncomingPluginChannel(plugin, CHANNEL, this);
+    }
+
+    @Override
+    public boolean requestPlayerCount(String server) {
+        Player carrier = Iterables.getFirst(Bukkit.getOnlinePlayers(), null);
+        if (carrier == null) return false;
+
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeUTF("PlayerCount");
+        out.writeUTF(server);
+        carrier.sendPluginMessage(plugin, CHANNEL, out.toByteArray());
+        return true;
+    }
+
+    @Override
+    public void connect(Player player, String server) {
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeUTF("Connect");
+        out.writeUTF(server);
+        player.sendPluginMessage(plugin, CHANNEL, out.toByteArray());
+    }
+
+    @Override
+    public void onPluginMessageReceived(String channel, Player player, byte[] message) {
+        if (!CHANNEL.equals(channel) || receiver == null) return;
+
+        ByteArrayDataInput in = ByteStreams.newDataInput(message);
+        String subChannel = in.readUTF();
+        if (subChannel.equals("PlayerCount")) {
+            String server = in.readUTF();
+            int count = in.readInt();
+            receiver.onPlayerCount(server, count);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package fr.heneria.lobby.proxy;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Transport to the proxy. The default implementation uses the BungeeCord
+ * plugin-messaging channel, a local fake can be used instead.
+ */
+public interface ProxyMessenger {
+
+    void start(Receiver receiver);
+
+    void stop();
+
+    /**
+     * Asks the proxy for the player count of a server, answered through the {@link Receiver}.
+     * @return False if the request could not be sent (e.g. no player to carry the message).
+     */
+    boolean requestPlayerCount(String server);
+
+    void connect(Player player, String server);
+
+    interface Receiver {
+
+        void onPlayerCount(String server, int count);
+    }
+}
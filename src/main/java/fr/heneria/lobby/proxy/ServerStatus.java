@@ -0,0 +1,11 @@
+package fr.heneria.lobby.proxy;
+
+/**
+ * Last known state of a server behind the proxy.
+ */
+public record ServerStatus(String server, int players, long updatedAt) {
+
+    public boolean isOnline(long staleAfterMillis) {
+        return System.currentTimeMillis() - updatedAt <= staleAfterMillis;
+    }
+}
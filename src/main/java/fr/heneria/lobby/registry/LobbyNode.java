@@ -0,0 +1,17 @@
+package fr.heneria.lobby.registry;
+
+/**
+ * Last heartbeat of a lobby node, as read from the shared {@code lobby_nodes} table.
+ *
+ * @param ageSeconds Seconds since the heartbeat, measured by the database clock.
+ */
+public record LobbyNode(String nodeId, String server, int players, int maxPlayers, double tps, long ageSeconds) {
+
+    public boolean isFresh(long staleAfterSeconds) {
+        return ageSeconds <= staleAfterSeconds;
+    }
+
+    public boolean isFull() {
+        return maxPlayers > 0 && players >= maxPlayers;
+    }
+}
@@ -0,0 +1,71 @@
+package fr.heneria.lobby.util;
+
+import net.kyori.adventure.text.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of parsed components, keyed by the raw (unresolved) template.
+ * Components are immutable so cached trees can be shared between players.
+ */
+public class ComponentCache {
+
+    private final int maxSize;
+    private final Map<String, Component> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ComponentCache(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Component> eldest) {
+                return size() > ComponentCache.this.maxSize;
+            }
+        };
+    }
+
+    public Component get(String raw, Function<String, Component> parser) {
+        synchronized (cache) {
+            Component component = cache.get(raw);
+            if (component != null) {
+                hits.incrementAndGet();
+                return component;
+            }
+        }
+
+        misses.incrementAndGet();
+        Component parsed = parser.apply(raw);
+        synchronized (cache) {
+            cache.put(raw, parsed);
+        }
+        return parsed;
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+}
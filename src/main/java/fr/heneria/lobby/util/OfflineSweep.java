@@ -0,0 +1,47 @@
+package fr.heneria.lobby.util;
+
+import org.bukkit.Bukkit;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Forgets the per-player entries left behind when no quit event follows the pre-login
+ * (client dropped before the join). An entry is only removed when its player was already
+ * absent at the previous sweep, so a player still between the pre-login and the join is kept.
+ * Runs on the server thread.
+ */
+public class OfflineSweep {
+
+    public static final long INTERVAL_TICKS = 60 * 20L;
+
+    private Set<UUID> absent = new HashSet<>();
+
+    /**
+     * @param keys The players the manager holds an entry for.
+     * @param unload Called for each player to forget.
+     * @return The number of players forgotten.
+     */
+    public int sweep(Collection<UUID> keys, Consumer<UUID> unload) {
+        Set<UUID> nowAbsent = new HashSet<>();
+        int removed = 0;
+        for (UUID uuid : Set.copyOf(keys)) {
+            if (Bukkit.getPlayer(uuid) != null) continue;
+            if (absent.contains(uuid)) {
+                unload.accept(uuid);
+                removed++;
+            } else {
+                nowAbsent.add(uuid);
+            }
+        }
+        absent = nowAbsent;
+        return removed;
+    }
+
+    public void clear() {
+        absent = new HashSet<>();
+    }
+}
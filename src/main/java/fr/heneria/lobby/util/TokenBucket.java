@@ -0,0 +1,33 @@
+package fr.heneria.lobby.util;
+
+/**
+ * Classic token bucket: up to {@code capacity} tokens, refilled continuously.
+ * Not thread-safe, used from the server thread only.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000D;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * @return True if a token was available and taken.
+     */
+    public boolean tryConsume() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+        lastRefill = now;
+
+        if (tokens < 1D) return false;
+        tokens -= 1D;
+        return true;
+    }
+}